@@ -0,0 +1,77 @@
+package com.emis_app.emis_app.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Trigram index lookup against the linear case-insensitive scan that a LIKE '%...%' amounts to,
+ * over a population of generated learner names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NgramIndexBenchmark {
+
+    private static final String[] FIRST = {"Kato", "Nakato", "Babirye", "Mukasa", "Achieng", "Okello", "Namuli",
+            "Ssebugwawo", "Atim", "Wasswa", "Nansubuga", "Opio", "Kyomuhendo", "Tumusiime", "Auma", "Lubega"};
+    private static final String[] LAST = {"Ssemakula", "Nalwoga", "Mugisha", "Odongo", "Namugga", "Kiggundu",
+            "Akello", "Byaruhanga", "Nabukenya", "Ochieng", "Tusiime", "Kasozi", "Adong", "Mwesigwa"};
+
+    @Param({"100000"})
+    int documents;
+
+    @Param({"mugisha", "kato ss", "zzq"})
+    String query;
+
+    private NgramIndex index;
+    private List<String> names;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(7);
+        index = new NgramIndex();
+        names = new ArrayList<>(documents);
+        for (int id = 0; id < documents; id++) {
+            String name = FIRST[random.nextInt(FIRST.length)] + " " + LAST[random.nextInt(LAST.length)] + " " + id;
+            names.add(name);
+            index.put((long) id, name);
+        }
+    }
+
+    @Benchmark
+    public Set<Long> indexSearch() {
+        return index.search(query);
+    }
+
+    @Benchmark
+    public Set<Long> linearScan() {
+        String needle = query.toLowerCase(Locale.ROOT);
+        Set<Long> ids = new HashSet<>();
+        for (int id = 0; id < names.size(); id++) {
+            if (names.get(id).toLowerCase(Locale.ROOT).contains(needle)) {
+                ids.add((long) id);
+            }
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,105 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.cache.SchoolCache;
+import com.emis_app.emis_app.entity.Learner;
+import com.emis_app.emis_app.entity.School;
+import com.emis_app.emis_app.repository.SchoolRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * Realistic in-memory fixtures for the benchmarks: services wired with stub repositories and a warm
+ * school cache, plus pages of learners and schools shaped like the seeded data.
+ */
+final class BenchmarkData {
+
+    static final int SCHOOL_COUNT = 50;
+
+    private static final String[] GENDERS = {"Male", "Female"};
+    private static final String[] GRADES = {"P1", "P2", "P3", "P4", "P5", "P6", "P7", "S1", "S2", "S3", "S4", "S5", "S6"};
+    private static final String[] YEARS = {"2023-2024", "2024-2025"};
+
+    private BenchmarkData() {
+    }
+
+    static List<School> schools() {
+        List<School> schools = new ArrayList<>();
+        for (long id = 1; id <= SCHOOL_COUNT; id++) {
+            School school = new School();
+            school.setId(id);
+            school.setName("Benchmark Secondary School " + id);
+            school.setSchoolType(id % 2 == 0 ? "Public Secondary" : "Private Primary");
+            school.setLocation("Kampala Central Division, Plot " + id);
+            school.setEnrollmentCapacity(800);
+            school.setEnrolledCount(400);
+            school.setCreatedAt(LocalDateTime.of(2024, 1, 1, 8, 0));
+            school.setUpdatedAt(LocalDateTime.of(2024, 6, 1, 8, 0));
+            schools.add(school);
+        }
+        return schools;
+    }
+
+    static List<Learner> learners(List<School> schools, int count) {
+        Random random = new Random(42);
+        List<Learner> learners = new ArrayList<>();
+        for (long id = 1; id <= count; id++) {
+            Learner learner = new Learner();
+            learner.setId(id);
+            learner.setName("Learner Number " + id);
+            learner.setGender(GENDERS[random.nextInt(GENDERS.length)]);
+            learner.setGrade(GRADES[random.nextInt(GRADES.length)]);
+            learner.setAcademicYear(YEARS[random.nextInt(YEARS.length)]);
+            learner.setSchool(schools.get(random.nextInt(schools.size())));
+            learner.setCreatedAt(LocalDateTime.of(2024, 2, 1, 9, 30));
+            learner.setUpdatedAt(LocalDateTime.of(2024, 3, 1, 9, 30));
+            learners.add(learner);
+        }
+        return learners;
+    }
+
+    static LearnerService learnerService(List<School> schools) {
+        SchoolRepository schoolRepository = Mockito.mock(SchoolRepository.class);
+        for (School school : schools) {
+            Mockito.when(schoolRepository.findById(school.getId())).thenReturn(Optional.of(school));
+        }
+        SchoolCache schoolCache = new SchoolCache(schoolRepository, new SimpleMeterRegistry(), 10_000, Duration.ofHours(1));
+        schools.forEach(school -> schoolCache.get(school.getId()));
+        return service(LearnerService.class, schoolRepository, schoolCache);
+    }
+
+    static SchoolService schoolService() {
+        return service(SchoolService.class);
+    }
+
+    /**
+     * Constructs {@code type} through its constructor, passing the matching collaborator for each parameter
+     * and a Mockito mock for the rest, so new service dependencies do not need touching up here.
+     */
+    private static <T> T service(Class<T> type, Object... collaborators) {
+        Constructor<?>[] constructors = type.getConstructors();
+        if (constructors.length != 1) {
+            throw new IllegalStateException(type.getSimpleName() + " must have exactly one public constructor");
+        }
+        Object[] arguments = Arrays.stream(constructors[0].getParameterTypes())
+                .map(parameter -> Arrays.stream(collaborators)
+                        .filter(parameter::isInstance)
+                        .findFirst()
+                        .orElseGet(() -> Mockito.mock(parameter)))
+                .toArray();
+        try {
+            return type.cast(constructors[0].newInstance(arguments));
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Cannot construct " + type.getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.PagedResponse;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.entity.Learner;
+import com.emis_app.emis_app.entity.School;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-page cost of turning entities into response DTOs: learner rows (school name resolved through
+ * the school cache) wrapped into a {@link PagedResponse}, and school rows with their learner count.
+ * Run with {@code -prof gc} (the default jmh.args) to see allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DtoMappingBenchmark {
+
+    @Param({"10", "50", "200"})
+    int pageSize;
+
+    private LearnerService learnerService;
+    private SchoolService schoolService;
+    private List<Learner> learners;
+    private List<School> schools;
+    private PageRequest pageRequest;
+
+    @Setup
+    public void setUp() {
+        List<School> allSchools = BenchmarkData.schools();
+        learnerService = BenchmarkData.learnerService(allSchools);
+        schoolService = BenchmarkData.schoolService();
+        learners = BenchmarkData.learners(allSchools, pageSize);
+        schools = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            schools.add(allSchools.get(i % allSchools.size()));
+        }
+        pageRequest = PageRequest.of(0, pageSize);
+    }
+
+    @Benchmark
+    public PagedResponse<LearnerDTO> learnerPage() {
+        List<LearnerDTO> content = new ArrayList<>(learners.size());
+        for (Learner learner : learners) {
+            content.add(learnerService.convertToDTO(learner));
+        }
+        return PagedResponse.of(new PageImpl<>(content, pageRequest, 10_000), content);
+    }
+
+    @Benchmark
+    public List<SchoolDTO> schoolPage() {
+        List<SchoolDTO> content = new ArrayList<>(schools.size());
+        for (School school : schools) {
+            content.add(schoolService.convertToDTO(school, 400L));
+        }
+        return content;
+    }
+}
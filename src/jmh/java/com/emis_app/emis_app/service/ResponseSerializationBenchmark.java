@@ -0,0 +1,73 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.ApiResponse;
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.PagedResponse;
+import com.emis_app.emis_app.entity.Learner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson cost of the learner list response body, {@code ApiResponse<PagedResponse<LearnerDTO>>},
+ * written to a discarding stream the way the message converter streams it to the socket, in each
+ * encoding the API negotiates. The encoded size of each page is printed during setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"10", "50", "200"})
+    int pageSize;
+
+    @Param({"json", "cbor", "smile"})
+    String format;
+
+    private ObjectMapper objectMapper;
+    private ApiResponse<PagedResponse<LearnerDTO>> response;
+
+    @Setup
+    public void setUp() {
+        // Same defaults Spring Boot applies to the MVC ObjectMappers (java.time support, ISO dates)
+        objectMapper = switch (format) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+
+        LearnerService learnerService = BenchmarkData.learnerService(BenchmarkData.schools());
+        List<Learner> learners = BenchmarkData.learners(BenchmarkData.schools(), pageSize);
+        List<LearnerDTO> content = learners.stream().map(learnerService::convertToDTO).toList();
+        response = ApiResponse.success(PagedResponse.of(new PageImpl<>(content, PageRequest.of(0, pageSize), 10_000), content));
+        try {
+            System.out.printf("%n%s, %d learners: %d bytes%n", format, pageSize, objectMapper.writeValueAsBytes(response).length);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Benchmark
+    public void learnerPageResponse() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
@@ -0,0 +1,150 @@
+package com.emis_app.emis_app.cache;
+
+import com.emis_app.emis_app.entity.Learner;
+import com.emis_app.emis_app.entity.School;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.StringJoiner;
+
+/**
+ * Change counter for the schools and learners tables, used as the version behind list ETags. The counter
+ * is the database sequence {@code resource_versions_seq}, so every instance sees the same version. A
+ * transaction that writes either table draws one value from it after it commits: sequences are not
+ * transactional and take no row lock, so writers never wait on each other for it, and a reader that sees
+ * the new version is guaranteed to see the rows behind it. A reader that runs between the commit and the
+ * bump pairs the new rows with the old version, which only costs its client one more full response.
+ * Either table's responses depend on the other (learners_count, school_name, cascades), so one counter
+ * serves both.
+ * <p>
+ * The sequence is created at startup if missing, starting from the clock in microseconds so a recreated
+ * sequence does not hand out versions an earlier run already used.
+ */
+@Component
+public class ResourceVersions implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String SEQUENCE = "resource_versions_seq";
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final JdbcTemplate jdbcTemplate;
+    private String currentValueQuery;
+
+    public ResourceVersions(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    void register() {
+        jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + SEQUENCE + " START WITH " + System.currentTimeMillis() * 1_000);
+        // Reading a sequence without advancing it is not standard SQL
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        currentValueQuery = "H2".equals(product)
+                ? "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = '" + SEQUENCE.toUpperCase() + "'"
+                : "SELECT last_value FROM " + SEQUENCE;
+
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    public String current() {
+        return of(jdbcTemplate.queryForObject(currentValueQuery, Long.class));
+    }
+
+    /**
+     * Joins version parts into a compact token; timestamps are rendered as epoch microseconds.
+     */
+    public static String of(Object... parts) {
+        StringJoiner token = new StringJoiner("-");
+        for (Object part : parts) {
+            if (part instanceof LocalDateTime timestamp) {
+                long micros = timestamp.toEpochSecond(ZoneOffset.UTC) * 1_000_000 + timestamp.getNano() / 1_000;
+                token.add(Long.toString(micros, 36));
+            } else if (part instanceof Number number) {
+                token.add(Long.toString(number.longValue(), 36));
+            } else {
+                token.add(String.valueOf(part));
+            }
+        }
+        return token.toString();
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        changed(event.getEntity(), event.getSession());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        changed(event.getEntity(), event.getSession());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        changed(event.getEntity(), event.getSession());
+    }
+
+    // Once per transaction, after it commits; a nested REQUIRES_NEW transaction has its own
+    // synchronizations, so it bumps on its own as well
+    private void changed(Object entity, EventSource session) {
+        if (!(entity instanceof Learner || entity instanceof School)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            session.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (success, completed) -> {
+                if (success) {
+                    bump();
+                }
+            });
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof BumpAfterCommit) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new BumpAfterCommit());
+    }
+
+    // May run on the committed transaction's connection; nextval takes effect whether or not anything
+    // commits after it
+    private void bump() {
+        jdbcTemplate.queryForObject("SELECT nextval('" + SEQUENCE + "')", Long.class);
+    }
+
+    private final class BumpAfterCommit implements TransactionSynchronization {
+        @Override
+        public void afterCommit() {
+            bump();
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+}
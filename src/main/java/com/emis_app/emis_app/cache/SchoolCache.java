@@ -0,0 +1,110 @@
+package com.emis_app.emis_app.cache;
+
+import com.emis_app.emis_app.entity.School;
+import com.emis_app.emis_app.repository.SchoolRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded, read-through cache of school snapshots in front of {@link SchoolRepository}. Entries are
+ * evicted when the size limit is reached or the TTL expires, and explicitly when a school is
+ * updated or deleted. A write on another instance only reaches this cache through the TTL, so responses
+ * that carry a database-derived ETag {@link #revalidate} their entries against the row first. Hit, miss
+ * and eviction counts are published as cache.* meters tagged cache=schools.
+ */
+@Component
+public class SchoolCache {
+
+    private final SchoolRepository schoolRepository;
+    private final Cache<Long, SchoolSnapshot> cache;
+
+    public SchoolCache(SchoolRepository schoolRepository, MeterRegistry meterRegistry,
+                       @Value("${emis.cache.schools.max-size:10000}") long maxSize,
+                       @Value("${emis.cache.schools.ttl:PT10M}") Duration ttl) {
+        this.schoolRepository = schoolRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "schools");
+    }
+
+    public Optional<SchoolSnapshot> get(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        // Missing schools are not cached, so a school created afterwards is found on the next lookup
+        return Optional.ofNullable(cache.get(id, key -> schoolRepository.findById(key).map(SchoolSnapshot::of).orElse(null)));
+    }
+
+    /**
+     * Snapshots of the given schools, loading every miss with one IN query. Unknown ids are absent from the map.
+     */
+    public Map<Long, SchoolSnapshot> getAll(Collection<Long> ids) {
+        return cache.getAll(ids, missing -> schoolRepository.findAllById(List.copyOf(missing)).stream()
+                .collect(Collectors.toMap(School::getId, SchoolSnapshot::of)));
+    }
+
+    /**
+     * Drops the entry now and again once the surrounding transaction commits, so a concurrent reader
+     * that reloaded the old row in between cannot leave a stale snapshot behind.
+     */
+    public void evict(Long id) {
+        cache.invalidate(id);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(id);
+                }
+            });
+        }
+    }
+
+    /**
+     * Drops the snapshot of a school unless it was taken from the row last updated at {@code updatedAt};
+     * a null timestamp means the row is gone.
+     */
+    public void revalidate(Long id, LocalDateTime updatedAt) {
+        SchoolSnapshot cached = cache.getIfPresent(id);
+        if (cached != null && (updatedAt == null || !updatedAt.equals(cached.updatedAt()))) {
+            cache.asMap().remove(id, cached);
+        }
+    }
+
+    /**
+     * Revalidates the cached snapshots among {@code ids} with one query for their timestamps; skips the
+     * query when none of them is cached.
+     */
+    public void revalidate(Collection<Long> ids) {
+        Map<Long, SchoolSnapshot> cached = cache.getAllPresent(ids);
+        if (cached.isEmpty()) {
+            return;
+        }
+        Map<Long, LocalDateTime> current = new HashMap<>();
+        for (Object[] row : schoolRepository.findUpdatedAtByIds(cached.keySet())) {
+            current.put((Long) row[0], (LocalDateTime) row[1]);
+        }
+        cached.keySet().forEach(id -> revalidate(id, current.get(id)));
+    }
+
+    public void clear() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,19 @@
+package com.emis_app.emis_app.cache;
+
+import com.emis_app.emis_app.entity.School;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a school's reference data, safe to share between requests and threads. The
+ * enrolled count is deliberately left out: it changes with every enrollment and is read from the
+ * database where it matters.
+ */
+public record SchoolSnapshot(Long id, String name, String schoolType, String location, Integer enrollmentCapacity,
+                             LocalDateTime createdAt, LocalDateTime updatedAt) {
+
+    public static SchoolSnapshot of(School school) {
+        return new SchoolSnapshot(school.getId(), school.getName(), school.getSchoolType(), school.getLocation(),
+                school.getEnrollmentCapacity(), school.getCreatedAt(), school.getUpdatedAt());
+    }
+}
@@ -0,0 +1,29 @@
+package com.emis_app.emis_app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.listener.CommonErrorHandler;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.time.Duration;
+
+/**
+ * Listener error handling. Spring Boot wires this into the default listener container factory; the
+ * consumer and listener settings themselves live under {@code spring.kafka} in application.yml.
+ */
+@Configuration
+public class KafkaConfig {
+
+    /**
+     * Retries a failed batch from the failed record with a fixed back-off, then logs and skips that
+     * record so one poison response cannot stall its partition.
+     */
+    @Bean
+    public CommonErrorHandler kafkaErrorHandler(
+            @Value("${emis.kafka.consumer.retry-interval:PT1S}") Duration retryInterval,
+            @Value("${emis.kafka.consumer.max-retries:3}") long maxRetries) {
+        return new DefaultErrorHandler(new FixedBackOff(retryInterval.toMillis(), maxRetries));
+    }
+}
@@ -0,0 +1,72 @@
+package com.emis_app.emis_app.config;
+
+import com.emis_app.emis_app.metrics.DatabaseUsageDataSource;
+import com.emis_app.emis_app.metrics.DatabaseUsageFilter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Application metrics on top of what Spring Boot already publishes. Repository timers
+ * ({@code spring.data.repository.invocations}), service timers ({@code emis.service} via
+ * {@code @Timed}) and Hibernate statistics ({@code hibernate.*}) come from auto-configuration and
+ * the {@code management.*} settings in application.yml; this adds per-request database usage and
+ * the virtual-thread connection gate.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public static BeanPostProcessor databaseUsagePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof DatabaseUsageDataSource)) {
+                    return new DatabaseUsageDataSource(dataSource);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<DatabaseUsageFilter> databaseUsageFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<DatabaseUsageFilter> registration =
+                new FilterRegistrationBean<>(new DatabaseUsageFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder dataSourceGateMetrics(DataSource dataSource) {
+        return registry -> {
+            ConcurrencyLimitedDataSource gate = unwrapGate(dataSource);
+            if (gate == null) {
+                return;
+            }
+            Gauge.builder("emis.datasource.gate.available", gate, ConcurrencyLimitedDataSource::getAvailablePermits)
+                    .description("Connection permits currently free")
+                    .register(registry);
+            Gauge.builder("emis.datasource.gate.waiting", gate, ConcurrencyLimitedDataSource::getQueueLength)
+                    .description("Threads waiting for a connection permit")
+                    .register(registry);
+        };
+    }
+
+    private static ConcurrencyLimitedDataSource unwrapGate(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(ConcurrencyLimitedDataSource.class)
+                    ? dataSource.unwrap(ConcurrencyLimitedDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
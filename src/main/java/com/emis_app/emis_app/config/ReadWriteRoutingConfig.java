@@ -0,0 +1,90 @@
+package com.emis_app.emis_app.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import java.time.Duration;
+
+/**
+ * Sends read-only transactions to a read replica. The application still sees a single DataSource:
+ * a {@link LazyConnectionDataSourceProxy} over the primary pool that defers the real checkout until
+ * the first statement, by which point the transaction manager has marked the connection read-only,
+ * and then takes it from the replica pool instead. Writes, and reads outside a read-only
+ * transaction, stay on the primary. Replica failures fall back to the primary
+ * ({@link ReplicaFallbackDataSource}).
+ * <p>
+ * Both pools are Hikari pools with their own settings ({@code spring.datasource.hikari.*} and
+ * {@code emis.datasource.replica.hikari.*}) and publish {@code hikaricp.*} metrics tagged by pool name.
+ */
+@Configuration
+@ConditionalOnProperty(name = "emis.datasource.replica.enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    @Bean
+    public RoutingDataSource dataSource(DataSourceProperties properties, Environment environment,
+                                        MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("EmisReplicaPool");
+        replica.setJdbcUrl(binder.bind("emis.datasource.replica.url", String.class)
+                .orElseThrow(() -> new IllegalArgumentException("emis.datasource.replica.url is required")));
+        replica.setUsername(binder.bind("emis.datasource.replica.username", String.class).orElse(properties.getUsername()));
+        replica.setPassword(binder.bind("emis.datasource.replica.password", String.class).orElse(properties.getPassword()));
+        replica.setDriverClassName(properties.getDriverClassName());
+        replica.setReadOnly(true);
+        // A replica that is down at startup must not stop the application; reads fall back instead
+        replica.setInitializationFailTimeout(-1);
+        binder.bind("emis.datasource.replica.hikari", Bindable.ofInstance(replica));
+
+        // Neither pool is a bean of its own, so Boot's Hikari metrics binding does not see them
+        primary.setMetricRegistry(meterRegistry);
+        replica.setMetricRegistry(meterRegistry);
+        Counter fallbacks = Counter.builder("emis.datasource.replica.fallbacks")
+                .description("Read-only connections served by the primary because the replica was unavailable")
+                .register(meterRegistry);
+
+        Duration recheckInterval = binder.bind("emis.datasource.replica.recheck-interval", Duration.class)
+                .orElse(Duration.ofSeconds(30));
+        ReplicaFallbackDataSource readOnly = new ReplicaFallbackDataSource(replica, primary, recheckInterval,
+                fallbacks::increment);
+        Gauge.builder("emis.datasource.replica.available", readOnly, ds -> ds.isReplicaAvailable() ? 1 : 0)
+                .description("1 while read-only transactions are served by the replica")
+                .register(meterRegistry);
+        return new RoutingDataSource(primary, replica, readOnly);
+    }
+
+    /**
+     * The routing proxy; closing it shuts down both pools.
+     */
+    public static class RoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+        private final HikariDataSource primary;
+        private final HikariDataSource replica;
+
+        RoutingDataSource(HikariDataSource primary, HikariDataSource replica, ReplicaFallbackDataSource readOnly) {
+            super(primary);
+            this.primary = primary;
+            this.replica = replica;
+            setReadOnlyDataSource(readOnly);
+        }
+
+        @Override
+        public void close() {
+            replica.close();
+            primary.close();
+        }
+    }
+}
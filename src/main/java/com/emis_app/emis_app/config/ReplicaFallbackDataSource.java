@@ -0,0 +1,66 @@
+package com.emis_app.emis_app.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+/**
+ * Read-only side of the read/write split. Hands out replica connections, and primary connections
+ * while the replica is unhealthy: a failed replica checkout marks it down, and it is tried again
+ * only after {@code recheckInterval}, so a dead replica costs one failed attempt per interval
+ * rather than one per request.
+ */
+@Slf4j
+public class ReplicaFallbackDataSource extends DelegatingDataSource {
+
+    private final DataSource primary;
+    private final long recheckIntervalNanos;
+    private final Runnable onFallback;
+
+    // System.nanoTime() before which the replica is not tried; 0 while it is healthy
+    private volatile long downUntil;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, Duration recheckInterval,
+                                     Runnable onFallback) {
+        super(replica);
+        this.primary = primary;
+        this.recheckIntervalNanos = recheckInterval.toNanos();
+        this.onFallback = onFallback;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        long down = downUntil;
+        if (down != 0 && System.nanoTime() - down < 0) {
+            onFallback.run();
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = super.getConnection();
+            downUntil = 0;
+            return connection;
+        } catch (SQLException e) {
+            if (down == 0) {
+                log.warn("Read replica unavailable, routing reads to the primary for {} s: {}",
+                        recheckIntervalNanos / 1_000_000_000, e.getMessage());
+            }
+            downUntil = System.nanoTime() + recheckIntervalNanos;
+            onFallback.run();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection();
+    }
+
+    public boolean isReplicaAvailable() {
+        long down = downUntil;
+        return down == 0 || System.nanoTime() - down >= 0;
+    }
+}
@@ -0,0 +1,40 @@
+package com.emis_app.emis_app.config;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Database side of the virtual-thread mode. Spring Boot itself moves Tomcat request handling,
+ * {@code @Async} and {@code @Scheduled} work onto virtual threads when
+ * {@code spring.threads.virtual.enabled} is set; this wraps the pooled DataSource in a
+ * {@link ConcurrencyLimitedDataSource} so the unbounded number of request threads queues in front
+ * of the pool rather than inside it.
+ */
+@Configuration
+@ConditionalOnProperty(name = "emis.datasource.gate.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean
+    public static BeanPostProcessor dataSourceGatePostProcessor(Environment environment) {
+        int permits = environment.getProperty("emis.datasource.gate.permits", Integer.class,
+                environment.getProperty("spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+        Duration acquireTimeout = environment.getProperty("emis.datasource.gate.acquire-timeout", Duration.class,
+                Duration.ofSeconds(20));
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ConcurrencyLimitedDataSource)) {
+                    return new ConcurrencyLimitedDataSource(dataSource, permits, acquireTimeout);
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,54 @@
+package com.emis_app.emis_app.config;
+
+import com.emis_app.emis_app.controller.ConditionalGetInterceptor;
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ConditionalGetInterceptor conditionalGetInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(conditionalGetInterceptor)
+                .addPathPatterns("/api/v1/schools/**", "/api/v1/learners/**");
+    }
+
+    // Binary encodings of the same DTOs for clients that ask for them through Accept. Each replaces
+    // Spring's default converter in place, after JSON, so a missing or wildcard Accept still gets JSON;
+    // both use Boot's mapper builder so property naming and dates match the JSON output.
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.createXmlMapper(false).factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.createXmlMapper(false).factory(new SmileFactory()).build());
+    }
+
+    // Puts the DTOs under the fields= filter through a mix-in, so mappers built outside Boot (benchmarks,
+    // tests) serialize them as before; Boot's mappers default to writing every property. Static because the
+    // interceptor this class depends on already needs the ObjectMapper.
+    @Bean
+    public static Jackson2ObjectMapperBuilderCustomizer fieldSetFilterCustomizer() {
+        return builder -> builder
+                .mixIn(LearnerDTO.class, FieldSet.Filtered.class)
+                .mixIn(SchoolDTO.class, FieldSet.Filtered.class)
+                .filters(FieldSet.SERIALIZE_ALL);
+    }
+}
@@ -0,0 +1,146 @@
+package com.emis_app.emis_app.controller;
+
+import com.emis_app.emis_app.cache.ResourceVersions;
+import com.emis_app.emis_app.service.LearnerService;
+import com.emis_app.emis_app.service.SchoolService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Strong ETags and {@code 304 Not Modified} for the school and learner GET endpoints. The version is
+ * resolved before the handler runs: a primary-key lookup of the row timestamps for a single school or
+ * learner, the shared change counter {@code resource_versions_seq} ({@link ResourceVersions}) for
+ * lists. A matching {@code If-None-Match} ends the request here, before any DTO is built. Otherwise the
+ * version is left in a request attribute for {@link ConditionalGetResponseAdvice}, which sends the ETag
+ * only with a successful body, so a rejected request never carries the version of a representation it
+ * did not return.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalGetInterceptor implements HandlerInterceptor {
+
+    static final String VERSION_ATTRIBUTE = ConditionalGetInterceptor.class.getName() + ".version";
+
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    // What the JSON, CBOR and Smile converters produce, in converter order
+    private static final List<MediaType> ENCODINGS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+
+    private final SchoolService schoolService;
+    private final LearnerService learnerService;
+    private final ResourceVersions resourceVersions;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        Optional<String> version = version(request);
+        if (version.isEmpty()) {
+            return true;
+        }
+        String etag = etag(version.get(), negotiatedEncoding(request));
+        if (!matches(request, etag)) {
+            request.setAttribute(VERSION_ATTRIBUTE, version.get());
+            return true;
+        }
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        return false;
+    }
+
+    // Weak comparison, as If-None-Match requires
+    private static boolean matches(HttpServletRequest request, String etag) {
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        while (headers.hasMoreElements()) {
+            for (String candidate : headers.nextElement().split(",")) {
+                String tag = candidate.trim();
+                if (tag.equals("*") || (tag.startsWith("W/") ? tag.substring(2) : tag).equals(etag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // JSON, CBOR and Smile bodies of the same version are different representations, so each gets its own ETag
+    static String etag(String version, MediaType encoding) {
+        String suffix = "";
+        if (MediaType.APPLICATION_CBOR.isCompatibleWith(encoding)) {
+            suffix = "-cbor";
+        } else if (SMILE.isCompatibleWith(encoding)) {
+            suffix = "-smile";
+        }
+        return "\"" + version + suffix + "\"";
+    }
+
+    /**
+     * The encoding content negotiation will pick for the request, found before the handler runs: the
+     * first encoding, in converter order, compatible with the highest-ranked acceptable type. Mirrors
+     * Spring's choice so a 304 is only given for the representation the client would have received.
+     */
+    private static MediaType negotiatedEncoding(HttpServletRequest request) {
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(request.getHeader(HttpHeaders.ACCEPT)));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        // Ranks by quality first, then specificity
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            for (MediaType encoding : ENCODINGS) {
+                if (type.getQualityValue() > 0 && type.isCompatibleWith(encoding)) {
+                    return encoding;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private Optional<String> version(HttpServletRequest request) {
+        String pattern = (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return Optional.empty();
+        }
+        return switch (pattern) {
+            case "/api/v1/schools/{id}" -> id(request).flatMap(schoolService::getSchoolVersion).map(v -> "school-" + v);
+            case "/api/v1/learners/{id}" -> id(request).flatMap(learnerService::getLearnerVersion).map(v -> "learner-" + v);
+            default -> {
+                if (pattern.startsWith("/api/v1/schools")) {
+                    yield Optional.of("schools-" + resourceVersions.current());
+                }
+                if (pattern.startsWith("/api/v1/learners")) {
+                    yield Optional.of("learners-" + resourceVersions.current());
+                }
+                yield Optional.empty();
+            }
+        };
+    }
+
+    // Malformed ids get no ETag and are left to the handler to reject
+    @SuppressWarnings("unchecked")
+    private static Optional<Long> id(HttpServletRequest request) {
+        Map<String, String> variables = (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        try {
+            return Optional.of(Long.valueOf(variables.get("id")));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+}
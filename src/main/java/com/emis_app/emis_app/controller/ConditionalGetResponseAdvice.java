@@ -0,0 +1,43 @@
+package com.emis_app.emis_app.controller;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Sends the ETag for the version resolved by {@link ConditionalGetInterceptor} with 2xx bodies only,
+ * suffixed for the encoding content negotiation actually selected; error bodies written for the same
+ * request (validation failures, unknown ids) go out without one.
+ */
+@RestControllerAdvice
+public class ConditionalGetResponseAdvice implements ResponseBodyAdvice<Object> {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest
+                && response instanceof ServletServerHttpResponse servletResponse) {
+            Object version = servletRequest.getServletRequest().getAttribute(ConditionalGetInterceptor.VERSION_ATTRIBUTE);
+            HttpServletResponse httpResponse = servletResponse.getServletResponse();
+            if (version != null && httpResponse.getStatus() >= 200 && httpResponse.getStatus() < 300) {
+                response.getHeaders().set(HttpHeaders.ETAG, ConditionalGetInterceptor.etag((String) version, selectedContentType));
+                response.getHeaders().set(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        }
+        return body;
+    }
+}
@@ -0,0 +1,31 @@
+package com.emis_app.emis_app.controller;
+
+import com.emis_app.emis_app.dto.FieldSet;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Applies the {@code fields} request parameter to the response body: the DTOs are serialized through the
+ * {@value FieldSet#FILTER_ID} filter, so properties the client did not ask for are left out of the JSON,
+ * CBOR and Smile documents rather than written as nulls. The controllers have already validated the names.
+ */
+@RestControllerAdvice(assignableTypes = {SchoolController.class, LearnerController.class})
+public class FieldSetResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        String fields = ((ServletServerHttpRequest) request).getServletRequest().getParameter(FieldSet.FILTER_ID);
+        FieldSet fieldSet = FieldSet.parse(fields);
+        if (!fieldSet.isAll()) {
+            bodyContainer.setFilters(fieldSet.filters());
+        }
+    }
+}
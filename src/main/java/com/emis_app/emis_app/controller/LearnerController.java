@@ -1,8 +1,15 @@
 package com.emis_app.emis_app.controller;
 
 import com.emis_app.emis_app.dto.ApiResponse;
+import com.emis_app.emis_app.dto.BulkEnrollmentResult;
+import com.emis_app.emis_app.dto.CursorPagedResponse;
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.ExportFormat;
 import com.emis_app.emis_app.dto.LearnerDTO;
 import com.emis_app.emis_app.dto.PagedResponse;
+import com.emis_app.emis_app.dto.TotalMode;
+import com.emis_app.emis_app.service.BulkEnrollmentService;
+import com.emis_app.emis_app.service.LearnerExportService;
 import com.emis_app.emis_app.service.LearnerService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
@@ -10,10 +17,14 @@ import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -23,6 +34,8 @@ import java.util.Optional;
 public class LearnerController {
 
     private final LearnerService learnerService;
+    private final LearnerExportService learnerExportService;
+    private final BulkEnrollmentService bulkEnrollmentService;
 
     // CRUD Operations
     @PostMapping
@@ -38,10 +51,29 @@ public class LearnerController {
         }
     }
 
+    @PostMapping("/bulk")
+    @Operation(summary = "Bulk enroll learners",
+            description = "Creates many learners in one request and reports the outcome of every row. Invalid rows and rows over a school's capacity are rejected individually")
+    public ResponseEntity<ApiResponse<BulkEnrollmentResult>> bulkCreateLearners(@RequestBody List<LearnerDTO> learnerDTOs) {
+        BulkEnrollmentResult result = bulkEnrollmentService.enrollLearners(learnerDTOs);
+        return ResponseEntity.ok(ApiResponse.success("Bulk enrollment processed", result));
+    }
+
+    @GetMapping("/batch")
+    @Operation(summary = "Get learners by IDs",
+            description = "Resolves up to emis.lookup.max-ids learners with one query. Results follow the order of 'ids'; unknown IDs are left out")
+    public ResponseEntity<ApiResponse<List<LearnerDTO>>> getLearnersByIds(
+            @Parameter(description = "Comma-separated learner IDs") @RequestParam List<Long> ids,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(ApiResponse.success(learnerService.getLearnersByIds(ids, fieldSet(fields))));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get learner by ID", description = "Retrieves a learner by their unique identifier")
-    public ResponseEntity<ApiResponse<LearnerDTO>> getLearnerById(@PathVariable Long id) {
-        Optional<LearnerDTO> learner = learnerService.getLearnerById(id);
+    public ResponseEntity<ApiResponse<LearnerDTO>> getLearnerById(
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
+        Optional<LearnerDTO> learner = learnerService.getLearnerById(id, fieldSet(fields));
         return learner.map(learnerDTO -> ResponseEntity.ok(ApiResponse.success(learnerDTO))).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(ApiResponse.error("Learner not found with id: " + id)));
     }
@@ -78,9 +110,11 @@ public class LearnerController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<LearnerDTO> learners = learnerService.getAllLearners(page, size, sortBy, sortDir);
+        PagedResponse<LearnerDTO> learners = learnerService.getAllLearners(page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(learners));
     }
 
@@ -91,9 +125,11 @@ public class LearnerController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersByName(name, page, size, sortBy, sortDir);
+        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersByName(name, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(learners));
     }
 
@@ -104,9 +140,11 @@ public class LearnerController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersByGender(gender, page, size, sortBy, sortDir);
+        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersByGender(gender, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(learners));
     }
 
@@ -117,9 +155,11 @@ public class LearnerController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersByGrade(grade, page, size, sortBy, sortDir);
+        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersByGrade(grade, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(learners));
     }
 
@@ -130,9 +170,11 @@ public class LearnerController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersByAcademicYear(academicYear, page, size, sortBy, sortDir);
+        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersByAcademicYear(academicYear, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(learners));
     }
 
@@ -143,9 +185,11 @@ public class LearnerController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersBySchool(schoolId, page, size, sortBy, sortDir);
+        PagedResponse<LearnerDTO> learners = learnerService.searchLearnersBySchool(schoolId, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(learners));
     }
 
@@ -161,10 +205,61 @@ public class LearnerController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
         PagedResponse<LearnerDTO> learners = learnerService.advancedSearch(
-                name, gender, grade, academicYear, schoolId, schoolName, page, size, sortBy, sortDir);
+                name, gender, grade, academicYear, schoolId, schoolName, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(learners));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll learners with a cursor",
+            description = "Keyset-paginated listing: pass the next_cursor of the previous page as 'after'. Deep pages cost the same as the first page")
+    public ResponseEntity<ApiResponse<CursorPagedResponse<LearnerDTO>>> scrollLearners(
+            @Parameter(description = "Learner name") @RequestParam(required = false) String name,
+            @Parameter(description = "Gender") @RequestParam(required = false) String gender,
+            @Parameter(description = "Grade") @RequestParam(required = false) String grade,
+            @Parameter(description = "Academic year") @RequestParam(required = false) String academicYear,
+            @Parameter(description = "School ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "School name") @RequestParam(required = false) String schoolName,
+            @Parameter(description = "Cursor returned as next_cursor by the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
+
+        CursorPagedResponse<LearnerDTO> learners = learnerService.scrollLearners(
+                name, gender, grade, academicYear, schoolId, schoolName, after, size, sortBy, sortDir, fieldSet(fields));
+        return ResponseEntity.ok(ApiResponse.success(learners));
+    }
+
+    @GetMapping("/export")
+    @Operation(summary = "Export learners",
+            description = "Streams every learner matching the advanced search filters as NDJSON, CSV or a CBOR sequence, without pagination. Without a format parameter the Accept header decides")
+    public ResponseEntity<StreamingResponseBody> exportLearners(
+            @Parameter(description = "Learner name") @RequestParam(required = false) String name,
+            @Parameter(description = "Gender") @RequestParam(required = false) String gender,
+            @Parameter(description = "Grade") @RequestParam(required = false) String grade,
+            @Parameter(description = "Academic year") @RequestParam(required = false) String academicYear,
+            @Parameter(description = "School ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "School name") @RequestParam(required = false) String schoolName,
+            @Parameter(description = "Export format: ndjson, csv or cbor") @RequestParam(required = false) String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        ExportFormat exportFormat = format != null ? ExportFormat.fromParameter(format) : ExportFormat.fromAccept(accept);
+        StreamingResponseBody body = out -> learnerExportService.exportLearners(
+                name, gender, grade, academicYear, schoolId, schoolName, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"learners." + exportFormat.getFileExtension() + "\"")
+                .body(body);
+    }
+
+    // Unknown names are rejected rather than silently producing empty objects
+    private static FieldSet fieldSet(String fields) {
+        return FieldSet.parse(fields).requireWithin(LearnerDTO.FIELDS);
+    }
+}
@@ -2,7 +2,10 @@ package com.emis_app.emis_app.controller;
 
 
 import com.emis_app.emis_app.dto.ApiResponse;
+import com.emis_app.emis_app.dto.CursorPagedResponse;
+import com.emis_app.emis_app.dto.FieldSet;
 import com.emis_app.emis_app.dto.PagedResponse;
+import com.emis_app.emis_app.dto.TotalMode;
 import com.emis_app.emis_app.dto.SchoolDTO;
 import com.emis_app.emis_app.service.SchoolService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -15,6 +18,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -39,10 +43,21 @@ public class SchoolController {
         }
     }
 
+    @GetMapping("/batch")
+    @Operation(summary = "Get schools by IDs",
+            description = "Resolves up to emis.lookup.max-ids schools with one query. Results follow the order of 'ids'; unknown IDs are left out")
+    public ResponseEntity<ApiResponse<List<SchoolDTO>>> getSchoolsByIds(
+            @Parameter(description = "Comma-separated school IDs") @RequestParam List<Long> ids,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(ApiResponse.success(schoolService.getSchoolsByIds(ids, fieldSet(fields))));
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Get school by ID", description = "Retrieves a school by its unique identifier")
-    public ResponseEntity<ApiResponse<SchoolDTO>> getSchoolById(@PathVariable Long id) {
-        Optional<SchoolDTO> school = schoolService.getSchoolById(id);
+    public ResponseEntity<ApiResponse<SchoolDTO>> getSchoolById(
+            @PathVariable Long id,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
+        Optional<SchoolDTO> school = schoolService.getSchoolById(id, fieldSet(fields));
         return school.map(schoolDTO -> ResponseEntity.ok(ApiResponse.success(schoolDTO))).orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
                 .body(ApiResponse.error("School not found with id: " + id)));
     }
@@ -79,9 +94,11 @@ public class SchoolController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<SchoolDTO> schools = schoolService.getAllSchools(page, size, sortBy, sortDir);
+        PagedResponse<SchoolDTO> schools = schoolService.getAllSchools(page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(schools));
     }
 
@@ -92,9 +109,11 @@ public class SchoolController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<SchoolDTO> schools = schoolService.searchSchoolsByName(name, page, size, sortBy, sortDir);
+        PagedResponse<SchoolDTO> schools = schoolService.searchSchoolsByName(name, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(schools));
     }
 
@@ -105,9 +124,11 @@ public class SchoolController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<SchoolDTO> schools = schoolService.searchSchoolsByType(schoolType, page, size, sortBy, sortDir);
+        PagedResponse<SchoolDTO> schools = schoolService.searchSchoolsByType(schoolType, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(schools));
     }
 
@@ -118,9 +139,11 @@ public class SchoolController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<SchoolDTO> schools = schoolService.searchSchoolsByLocation(location, page, size, sortBy, sortDir);
+        PagedResponse<SchoolDTO> schools = schoolService.searchSchoolsByLocation(location, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(schools));
     }
 
@@ -132,10 +155,12 @@ public class SchoolController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
         PagedResponse<SchoolDTO> schools = schoolService.searchSchoolsByCapacityRange(
-                minCapacity, maxCapacity, page, size, sortBy, sortDir);
+                minCapacity, maxCapacity, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(schools));
     }
 
@@ -150,10 +175,12 @@ public class SchoolController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
         PagedResponse<SchoolDTO> schools = schoolService.advancedSearch(
-                name, schoolType, location, minCapacity, maxCapacity, page, size, sortBy, sortDir);
+                name, schoolType, location, minCapacity, maxCapacity, page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(schools));
     }
 
@@ -163,9 +190,36 @@ public class SchoolController {
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
             @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
             @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
-            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir) {
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Total count mode: exact, estimate or none") @RequestParam(defaultValue = "exact") String total,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
 
-        PagedResponse<SchoolDTO> schools = schoolService.getSchoolsWithAvailableCapacity(page, size, sortBy, sortDir);
+        PagedResponse<SchoolDTO> schools = schoolService.getSchoolsWithAvailableCapacity(page, size, sortBy, sortDir, TotalMode.fromParameter(total), fieldSet(fields));
         return ResponseEntity.ok(ApiResponse.success(schools));
     }
-}
\ No newline at end of file
+
+    @GetMapping("/scroll")
+    @Operation(summary = "Scroll schools with a cursor",
+            description = "Keyset-paginated listing: pass the next_cursor of the previous page as 'after'. Deep pages cost the same as the first page")
+    public ResponseEntity<ApiResponse<CursorPagedResponse<SchoolDTO>>> scrollSchools(
+            @Parameter(description = "School name") @RequestParam(required = false) String name,
+            @Parameter(description = "School type") @RequestParam(required = false) String schoolType,
+            @Parameter(description = "Location") @RequestParam(required = false) String location,
+            @Parameter(description = "Minimum capacity") @RequestParam(required = false) Integer minCapacity,
+            @Parameter(description = "Maximum capacity") @RequestParam(required = false) Integer maxCapacity,
+            @Parameter(description = "Cursor returned as next_cursor by the previous page") @RequestParam(required = false) String after,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "10") int size,
+            @Parameter(description = "Sort field") @RequestParam(defaultValue = "name") String sortBy,
+            @Parameter(description = "Sort direction") @RequestParam(defaultValue = "asc") String sortDir,
+            @Parameter(description = "Comma-separated fields to return, e.g. id,name; all fields when omitted") @RequestParam(required = false) String fields) {
+
+        CursorPagedResponse<SchoolDTO> schools = schoolService.scrollSchools(
+                name, schoolType, location, minCapacity, maxCapacity, after, size, sortBy, sortDir, fieldSet(fields));
+        return ResponseEntity.ok(ApiResponse.success(schools));
+    }
+
+    // Unknown names are rejected rather than silently producing empty objects
+    private static FieldSet fieldSet(String fields) {
+        return FieldSet.parse(fields).requireWithin(SchoolDTO.FIELDS);
+    }
+}
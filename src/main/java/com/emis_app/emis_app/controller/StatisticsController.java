@@ -0,0 +1,76 @@
+package com.emis_app.emis_app.controller;
+
+import com.emis_app.emis_app.dto.ApiResponse;
+import com.emis_app.emis_app.service.StatisticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/v1/statistics")
+@RequiredArgsConstructor
+@Tag(name = "Statistics", description = "Aggregate learner and school counts")
+public class StatisticsController {
+
+    private final StatisticsService statisticsService;
+
+    @GetMapping("/summary")
+    @Operation(summary = "Statistics summary", description = "Returns total learners and schools with headline breakdowns")
+    public ResponseEntity<ApiResponse<Map<String, Object>>> getSummary() {
+        return ResponseEntity.ok(ApiResponse.success(statisticsService.getSummary()));
+    }
+
+    @GetMapping("/learners/by-gender")
+    @Operation(summary = "Learners by gender", description = "Counts learners per gender, optionally filtered")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> countLearnersByGender(
+            @Parameter(description = "School ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "Grade") @RequestParam(required = false) String grade,
+            @Parameter(description = "Academic year") @RequestParam(required = false) String academicYear) {
+
+        return ResponseEntity.ok(ApiResponse.success(statisticsService.countLearnersByGender(schoolId, grade, academicYear)));
+    }
+
+    @GetMapping("/learners/by-grade")
+    @Operation(summary = "Learners by grade", description = "Counts learners per grade, optionally filtered")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> countLearnersByGrade(
+            @Parameter(description = "School ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "Gender") @RequestParam(required = false) String gender,
+            @Parameter(description = "Academic year") @RequestParam(required = false) String academicYear) {
+
+        return ResponseEntity.ok(ApiResponse.success(statisticsService.countLearnersByGrade(schoolId, gender, academicYear)));
+    }
+
+    @GetMapping("/learners/by-academic-year")
+    @Operation(summary = "Learners by academic year", description = "Counts learners per academic year, newest first")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> countLearnersByAcademicYear(
+            @Parameter(description = "School ID") @RequestParam(required = false) Long schoolId,
+            @Parameter(description = "Gender") @RequestParam(required = false) String gender,
+            @Parameter(description = "Grade") @RequestParam(required = false) String grade) {
+
+        return ResponseEntity.ok(ApiResponse.success(statisticsService.countLearnersByAcademicYear(schoolId, gender, grade)));
+    }
+
+    @GetMapping("/learners/by-school")
+    @Operation(summary = "Learners by school", description = "Counts learners per school, largest first")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> countLearnersBySchool(
+            @Parameter(description = "Gender") @RequestParam(required = false) String gender,
+            @Parameter(description = "Grade") @RequestParam(required = false) String grade,
+            @Parameter(description = "Academic year") @RequestParam(required = false) String academicYear) {
+
+        return ResponseEntity.ok(ApiResponse.success(statisticsService.countLearnersBySchool(gender, grade, academicYear)));
+    }
+
+    @GetMapping("/schools/by-type")
+    @Operation(summary = "Schools by type", description = "Counts schools per school type")
+    public ResponseEntity<ApiResponse<Map<String, Long>>> countSchoolsByType() {
+        return ResponseEntity.ok(ApiResponse.success(statisticsService.countSchoolsByType()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.emis_app.emis_app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentResult {
+    private int total;
+
+    private int created;
+
+    private int rejected;
+
+    private List<BulkEnrollmentRowResult> results;
+}
@@ -0,0 +1,28 @@
+package com.emis_app.emis_app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkEnrollmentRowResult {
+    private int index;
+
+    private boolean success;
+
+    @JsonProperty("learner_id")
+    private Long learnerId;
+
+    private String message;
+
+    public static BulkEnrollmentRowResult created(int index, Long learnerId) {
+        return new BulkEnrollmentRowResult(index, true, learnerId, "Learner created successfully");
+    }
+
+    public static BulkEnrollmentRowResult rejected(int index, String message) {
+        return new BulkEnrollmentRowResult(index, false, null, message);
+    }
+}
@@ -0,0 +1,57 @@
+package com.emis_app.emis_app.dto;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+
+public enum ExportFormat {
+    NDJSON("application/x-ndjson", "ndjson"),
+    CSV("text/csv", "csv"),
+    // RFC 8742 CBOR sequence: one CBOR item per learner, back to back
+    CBOR("application/cbor-seq", "cbor");
+
+    private final String contentType;
+    private final String fileExtension;
+
+    ExportFormat(String contentType, String fileExtension) {
+        this.contentType = contentType;
+        this.fileExtension = fileExtension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * Format for a request without a format parameter: the first export content type the Accept
+     * header lists, NDJSON otherwise.
+     */
+    public static ExportFormat fromAccept(String accept) {
+        if (accept == null) {
+            return NDJSON;
+        }
+        try {
+            for (MediaType mediaType : MediaType.parseMediaTypes(accept)) {
+                for (ExportFormat format : values()) {
+                    if (mediaType.equalsTypeAndSubtype(MediaType.parseMediaType(format.contentType))) {
+                        return format;
+                    }
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // An unreadable Accept header is treated like no preference
+        }
+        return NDJSON;
+    }
+
+    public static ExportFormat fromParameter(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid export format '" + value + "', expected ndjson, csv or cbor");
+        }
+    }
+}
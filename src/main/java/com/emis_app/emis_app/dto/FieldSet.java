@@ -0,0 +1,105 @@
+package com.emis_app.emis_app.dto;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Sparse fieldset requested with {@code fields=id,name,grade}: the JSON properties of a
+ * {@link LearnerDTO} or {@link SchoolDTO} a client wants back. Services use it to leave columns out
+ * of the select list and to skip derived values such as learners_count; the response is written
+ * through the {@value #FILTER_ID} Jackson filter so only the requested properties are serialized.
+ */
+public final class FieldSet {
+
+    public static final String FILTER_ID = "fields";
+
+    public static final FieldSet ALL = new FieldSet(null);
+
+    // Filters used when a response carries no fieldset: every property is written
+    public static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider()
+            .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    // null means every field
+    private final Set<String> names;
+
+    private FieldSet(Set<String> names) {
+        this.names = names;
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} parameter; a missing or blank value selects every field.
+     */
+    public static FieldSet parse(String value) {
+        if (value == null || value.isBlank()) {
+            return ALL;
+        }
+        Set<String> names = new LinkedHashSet<>();
+        Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .forEach(names::add);
+        return names.isEmpty() ? ALL : new FieldSet(Set.copyOf(names));
+    }
+
+    /**
+     * Rejects fields the target DTO does not have, so a typo fails instead of returning empty objects.
+     */
+    public FieldSet requireWithin(Set<String> available) {
+        if (names != null && !available.containsAll(names)) {
+            Set<String> unknown = new TreeSet<>(names);
+            unknown.removeAll(available);
+            throw new IllegalArgumentException("Unknown fields " + unknown + ", expected any of " + new TreeSet<>(available));
+        }
+        return this;
+    }
+
+    /**
+     * This fieldset plus {@code field}, for queries that need a column the client did not ask for; the
+     * response filter still leaves it out.
+     */
+    public FieldSet with(String field) {
+        if (includes(field)) {
+            return this;
+        }
+        Set<String> widened = new LinkedHashSet<>(names);
+        widened.add(field);
+        return new FieldSet(Set.copyOf(widened));
+    }
+
+    public boolean isAll() {
+        return names == null;
+    }
+
+    public boolean includes(String field) {
+        return names == null || names.contains(field);
+    }
+
+    public FilterProvider filters() {
+        if (names == null) {
+            return SERIALIZE_ALL;
+        }
+        return new SimpleFilterProvider()
+                .setDefaultFilter(SimpleBeanPropertyFilter.serializeAll())
+                .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(names));
+    }
+
+    // Stable form for deduplication keys: the same fields in any order give the same string
+    @Override
+    public String toString() {
+        return names == null ? "*" : String.join(",", new TreeSet<>(names));
+    }
+
+    /**
+     * Jackson mix-in that puts a DTO under the {@value #FILTER_ID} filter.
+     */
+    @JsonFilter(FILTER_ID)
+    public interface Filtered {
+    }
+}
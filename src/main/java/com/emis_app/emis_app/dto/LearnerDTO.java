@@ -8,12 +8,17 @@ import lombok.AllArgsConstructor;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class LearnerDTO {
 
+    // JSON property names accepted by fields=
+    public static final Set<String> FIELDS = Set.of("id", "name", "gender", "grade", "academic_year",
+            "school_id", "school_name", "created_at", "updated_at");
+
     private Long id;
 
     @NotBlank(message = "Learner name is required")
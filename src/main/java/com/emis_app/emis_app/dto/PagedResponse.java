@@ -3,7 +3,10 @@ package com.emis_app.emis_app.dto;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 import java.util.List;
 
@@ -20,10 +23,16 @@ public class PagedResponse<T> {
     private int pageSize;
 
     @JsonProperty("total_elements")
-    private long totalElements;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long totalElements;
 
     @JsonProperty("total_pages")
-    private int totalPages;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Integer totalPages;
+
+    @JsonProperty("total_estimated")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Boolean totalEstimated;
 
     @JsonProperty("is_first")
     private boolean isFirst;
@@ -36,4 +45,23 @@ public class PagedResponse<T> {
 
     @JsonProperty("has_previous")
     private boolean hasPrevious;
+
+    public static <T> PagedResponse<T> of(Page<?> page, List<T> content) {
+        return new PagedResponse<>(content, page.getNumber(), page.getSize(),
+                page.getTotalElements(), page.getTotalPages(), null,
+                page.isFirst(), page.isLast(), page.hasNext(), page.hasPrevious());
+    }
+
+    public static <T> PagedResponse<T> of(Slice<?> slice, List<T> content) {
+        return new PagedResponse<>(content, slice.getNumber(), slice.getSize(),
+                null, null, null,
+                slice.isFirst(), slice.isLast(), slice.hasNext(), slice.hasPrevious());
+    }
+
+    public static <T> PagedResponse<T> of(Slice<?> slice, List<T> content, long estimatedTotal) {
+        int totalPages = slice.getSize() == 0 ? 1 : (int) Math.ceil((double) estimatedTotal / slice.getSize());
+        return new PagedResponse<>(content, slice.getNumber(), slice.getSize(),
+                estimatedTotal, totalPages, true,
+                slice.isFirst(), slice.isLast(), slice.hasNext(), slice.hasPrevious());
+    }
 }
@@ -9,12 +9,17 @@ import com.fasterxml.jackson.annotation.JsonProperty;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Set;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class SchoolDTO {
 
+    // JSON property names accepted by fields=
+    public static final Set<String> FIELDS = Set.of("id", "name", "school_type", "location",
+            "enrollment_capacity", "learners_count", "created_at", "updated_at");
+
     private Long id;
 
     @NotBlank(message = "School name is required")
@@ -45,4 +50,16 @@ public class SchoolDTO {
 
     @JsonProperty("updated_at")
     private LocalDateTime updatedAt;
-}
\ No newline at end of file
+
+    // Row projection used by the school list queries; learners_count is filled in afterwards
+    public SchoolDTO(Long id, String name, String schoolType, String location, Integer enrollmentCapacity,
+                     LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.schoolType = schoolType;
+        this.location = location;
+        this.enrollmentCapacity = enrollmentCapacity;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+}
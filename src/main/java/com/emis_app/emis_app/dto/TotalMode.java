@@ -0,0 +1,22 @@
+package com.emis_app.emis_app.dto;
+
+/**
+ * How a paged listing reports its total: EXACT runs a COUNT query, ESTIMATE serves a cached count
+ * that may be slightly stale, NONE skips the total entirely and only reports whether a next page exists.
+ */
+public enum TotalMode {
+    NONE,
+    ESTIMATE,
+    EXACT;
+
+    public static TotalMode fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return EXACT;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid total mode '" + value + "', expected none, estimate or exact");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.emis_app.emis_app.entity;
 
+import com.emis_app.emis_app.search.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
@@ -12,6 +13,7 @@ import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(SearchIndexEntityListener.class)
 @Table(name = "learners")
 @Data
 @NoArgsConstructor
@@ -19,7 +21,8 @@ import java.time.LocalDateTime;
 public class Learner {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "learner_seq")
+    @SequenceGenerator(name = "learner_seq", sequenceName = "learners_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 100)
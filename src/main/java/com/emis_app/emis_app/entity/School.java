@@ -1,5 +1,6 @@
 package com.emis_app.emis_app.entity;
 
+import com.emis_app.emis_app.search.SearchIndexEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.Data;
@@ -13,6 +14,7 @@ import java.time.LocalDateTime;
 import java.util.List;
 
 @Entity
+@EntityListeners(SearchIndexEntityListener.class)
 @Table(name = "schools")
 @Data
 @NoArgsConstructor
@@ -20,7 +22,8 @@ import java.util.List;
 public class School {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "school_seq")
+    @SequenceGenerator(name = "school_seq", sequenceName = "schools_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, length = 200)
@@ -43,6 +46,10 @@ public class School {
     @Min(value = 1, message = "Enrollment capacity must be at least 1")
     private Integer enrollmentCapacity;
 
+    // Maintained by conditional UPDATE statements in SchoolRepository, never written through the entity
+    @Column(name = "enrolled_count", nullable = false, updatable = false)
+    private Integer enrolledCount = 0;
+
     @OneToMany(mappedBy = "school", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @JsonManagedReference
     private List<Learner> learners;
@@ -0,0 +1,19 @@
+package com.emis_app.emis_app.kafka;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * The agent's answer to an {@link AgentTask}, read from {@code agent.responses}. {@code type} selects
+ * the {@link AgentResponseHandler}.
+ */
+public record AgentResponse(
+        @JsonProperty("task_id") String taskId,
+        @JsonProperty("type") String type,
+        @JsonProperty("status") String status,
+        @JsonProperty("school_id") Long schoolId,
+        @JsonProperty("payload") Map<String, Object> payload,
+        @JsonProperty("completed_at") Instant completedAt) {
+}
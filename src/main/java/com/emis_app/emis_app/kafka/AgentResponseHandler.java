@@ -0,0 +1,13 @@
+package com.emis_app.emis_app.kafka;
+
+/**
+ * Handles agent responses of one type. Implementations are Spring beans picked up by
+ * {@link AgentTaskConsumer}; responses for the same key are handed over one at a time and in
+ * order, but a batch may be redelivered after a failure, so handling must be idempotent.
+ */
+public interface AgentResponseHandler {
+
+    String type();
+
+    void handle(AgentResponse response);
+}
@@ -0,0 +1,29 @@
+package com.emis_app.emis_app.kafka;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * A unit of work published to the agent. Serialized as JSON; the record key is the school id when
+ * the task concerns one school, so all tasks for a school land on one partition and stay in order.
+ */
+public record AgentTask(
+        @JsonProperty("task_id") String taskId,
+        @JsonProperty("type") String type,
+        @JsonProperty("school_id") Long schoolId,
+        @JsonProperty("payload") Map<String, Object> payload,
+        @JsonProperty("created_at") Instant createdAt) {
+
+    public static AgentTask of(String type, Long schoolId, Map<String, Object> payload) {
+        return new AgentTask(UUID.randomUUID().toString(), type, schoolId, payload, Instant.now());
+    }
+
+    @JsonIgnore
+    public String partitionKey() {
+        return schoolId != null ? schoolId.toString() : taskId;
+    }
+}
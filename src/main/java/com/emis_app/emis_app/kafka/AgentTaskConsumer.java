@@ -1,13 +1,126 @@
 package com.emis_app.emis_app.kafka;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Consumes agent responses in batches ({@code spring.kafka.listener.type: batch}, one container per
+ * {@code spring.kafka.listener.concurrency}). Each batch is split by record key: keys are processed
+ * in parallel on a shared worker pool, records within a key strictly in offset order. Offsets are
+ * committed manually once the whole batch has been handled. If a record fails, the batch is not
+ * acknowledged; the failure is reported with the earliest failed record so the error handler
+ * commits everything before it and redelivers from there.
+ * <p>
+ * Publishes {@code emis.kafka.consumer.batch} (processing time) and
+ * {@code emis.kafka.consumer.batch.size}; consumer lag comes from the Kafka client metrics
+ * ({@code kafka.consumer.fetch.manager.records.lag*}).
+ */
+@Slf4j
 @Component
 public class AgentTaskConsumer {
 
-    @KafkaListener(topics = "agent.responses", groupId = "agent-consumer")
-    public void listen(String message) {
-        System.out.println("Agent response: " + message);
+    private final Map<String, AgentResponseHandler> handlers;
+    private final ExecutorService workers;
+    private final Timer batchTimer;
+    private final DistributionSummary batchSize;
+
+    public AgentTaskConsumer(List<AgentResponseHandler> handlers,
+                             MeterRegistry meterRegistry,
+                             @Value("${emis.kafka.consumer.workers:8}") int workers) {
+        this.handlers = handlers.stream().collect(Collectors.toMap(AgentResponseHandler::type, Function.identity()));
+        AtomicInteger threadCount = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "agent-response-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.batchTimer = Timer.builder("emis.kafka.consumer.batch")
+                .description("Time to process one batch of agent responses")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("emis.kafka.consumer.batch.size")
+                .description("Agent responses per batch")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(topics = "${emis.kafka.topics.agent-responses:agent.responses}", groupId = "agent-consumer")
+    public void listen(List<ConsumerRecord<String, AgentResponse>> records, Acknowledgment acknowledgment) {
+        batchSize.record(records.size());
+        batchTimer.record(() -> process(records));
+        acknowledgment.acknowledge();
+    }
+
+    private void process(List<ConsumerRecord<String, AgentResponse>> records) {
+        // Records without a key have no ordering requirement; give each its own group
+        Map<Object, List<Integer>> byKey = new LinkedHashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            Object key = records.get(i).key() != null ? records.get(i).key() : i;
+            byKey.computeIfAbsent(key, k -> new ArrayList<>()).add(i);
+        }
+
+        AtomicInteger firstFailure = new AtomicInteger(Integer.MAX_VALUE);
+        Map<Integer, RuntimeException> failures = new ConcurrentHashMap<>();
+        List<CompletableFuture<Void>> groups = new ArrayList<>(byKey.size());
+        for (List<Integer> indexes : byKey.values()) {
+            groups.add(CompletableFuture.runAsync(() -> {
+                for (int index : indexes) {
+                    try {
+                        handle(records.get(index));
+                    } catch (RuntimeException e) {
+                        failures.put(index, e);
+                        firstFailure.accumulateAndGet(index, Math::min);
+                        // Later records for this key must wait for the failed one
+                        return;
+                    }
+                }
+            }, workers));
+        }
+        CompletableFuture.allOf(groups.toArray(CompletableFuture[]::new)).join();
+
+        if (!failures.isEmpty()) {
+            int index = firstFailure.get();
+            throw new BatchListenerFailedException("Agent response handling failed", failures.get(index), index);
+        }
+    }
+
+    private void handle(ConsumerRecord<String, AgentResponse> record) {
+        AgentResponse response = record.value();
+        // Null when the payload could not be deserialized; redelivery would not help
+        if (response == null) {
+            log.warn("Skipping unreadable agent response at {}-{}@{}", record.topic(), record.partition(), record.offset());
+            return;
+        }
+        AgentResponseHandler handler = handlers.get(response.type());
+        if (handler == null) {
+            log.info("No handler for agent response type '{}' (task {})", response.type(), response.taskId());
+            return;
+        }
+        handler.handle(response);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
     }
-}
\ No newline at end of file
+}
@@ -1,16 +1,101 @@
 package com.emis_app.emis_app.kafka;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.KafkaException;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes {@link AgentTask}s asynchronously. Batching, linger and compression are the standard
+ * {@code spring.kafka.producer.*} settings; this class adds a bound on unacknowledged sends. When
+ * {@code emis.kafka.producer.max-in-flight} sends are outstanding, callers block until the broker
+ * acknowledges earlier ones, or fail after {@code acquire-timeout}, instead of letting the client
+ * buffer grow without limit. Results are published as {@code emis.kafka.producer.sends} (tagged by
+ * topic and result) and {@code emis.kafka.producer.latency}.
+ */
 @Service
-@RequiredArgsConstructor
 public class AgentTaskProducer {
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
+    private final KafkaTemplate<String, AgentTask> kafkaTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String defaultTopic;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Duration acquireTimeout;
+
+    public AgentTaskProducer(KafkaTemplate<String, AgentTask> kafkaTemplate,
+                             MeterRegistry meterRegistry,
+                             @Value("${emis.kafka.topics.agent-tasks:agent.tasks}") String defaultTopic,
+                             @Value("${emis.kafka.producer.max-in-flight:10000}") int maxInFlight,
+                             @Value("${emis.kafka.producer.acquire-timeout:PT30S}") Duration acquireTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.meterRegistry = meterRegistry;
+        this.defaultTopic = defaultTopic;
+        this.maxInFlight = maxInFlight;
+        this.inFlight = new Semaphore(maxInFlight);
+        this.acquireTimeout = acquireTimeout;
+        Gauge.builder("emis.kafka.producer.in-flight", this, AgentTaskProducer::getInFlight)
+                .description("Agent task sends awaiting acknowledgement")
+                .register(meterRegistry);
+    }
+
+    public CompletableFuture<SendResult<String, AgentTask>> send(AgentTask task) {
+        return send(defaultTopic, task);
+    }
+
+    public CompletableFuture<SendResult<String, AgentTask>> send(String topic, AgentTask task) {
+        acquire(topic);
+        long started = System.nanoTime();
+        CompletableFuture<SendResult<String, AgentTask>> future;
+        try {
+            future = kafkaTemplate.send(topic, task.partitionKey(), task);
+        } catch (RuntimeException e) {
+            inFlight.release();
+            sends(topic, "failure").increment();
+            throw e;
+        }
+        return future.whenComplete((result, error) -> {
+            inFlight.release();
+            sends(topic, error == null ? "success" : "failure").increment();
+            Timer.builder("emis.kafka.producer.latency")
+                    .description("Time from send to broker acknowledgement")
+                    .tag("topic", topic)
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    public int getInFlight() {
+        return maxInFlight - inFlight.availablePermits();
+    }
+
+    private void acquire(String topic) {
+        try {
+            if (!inFlight.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                sends(topic, "rejected").increment();
+                throw new KafkaException("Agent task producer still has " + getInFlight()
+                        + " unacknowledged sends after " + acquireTimeout.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while waiting to send an agent task", e);
+        }
+    }
 
-    public void send(String topic, String message) {
-        kafkaTemplate.send(topic, message);
+    private Counter sends(String topic, String result) {
+        return Counter.builder("emis.kafka.producer.sends")
+                .description("Agent task sends by outcome")
+                .tags("topic", topic, "result", result)
+                .register(meterRegistry);
     }
 }
@@ -0,0 +1,44 @@
+package com.emis_app.emis_app.metrics;
+
+/**
+ * Database work done on behalf of the current request: JDBC statements prepared and the total
+ * time connections were held. Bound to the request thread by {@link DatabaseUsageFilter} and fed
+ * by {@link DatabaseUsageDataSource}; work handed to other threads (async exports) is not counted.
+ */
+public final class DatabaseUsage {
+
+    private static final ThreadLocal<DatabaseUsage> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long connectionHoldNanos;
+
+    static DatabaseUsage start() {
+        DatabaseUsage usage = new DatabaseUsage();
+        CURRENT.set(usage);
+        return usage;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static DatabaseUsage current() {
+        return CURRENT.get();
+    }
+
+    void statementPrepared() {
+        statements++;
+    }
+
+    void connectionReleased(long heldNanos) {
+        connectionHoldNanos += heldNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getConnectionHoldNanos() {
+        return connectionHoldNanos;
+    }
+}
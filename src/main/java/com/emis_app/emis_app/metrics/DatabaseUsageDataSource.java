@@ -0,0 +1,66 @@
+package com.emis_app.emis_app.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Records statement and connection-hold counts into the current {@link DatabaseUsage}. Connections
+ * obtained outside a tracked request are returned unwrapped.
+ */
+public class DatabaseUsageDataSource extends DelegatingDataSource implements AutoCloseable {
+
+    public DatabaseUsageDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return tracked(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return tracked(super.getConnection(username, password));
+    }
+
+    private Connection tracked(Connection connection) {
+        DatabaseUsage usage = DatabaseUsage.current();
+        if (usage == null) {
+            return connection;
+        }
+        long acquired = System.nanoTime();
+        boolean[] closed = {false};
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "prepareStatement", "prepareCall", "createStatement" -> usage.statementPrepared();
+                        case "close" -> {
+                            if (!closed[0]) {
+                                closed[0] = true;
+                                usage.connectionReleased(System.nanoTime() - acquired);
+                            }
+                        }
+                        default -> {
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    // Spring calls this on shutdown in place of the wrapped pool's own close()
+    @Override
+    public void close() throws Exception {
+        if (getTargetDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.emis_app.emis_app.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes per-request database usage, tagged like {@code http.server.requests} with method and
+ * URI pattern, so the endpoints that cost the database most can be told apart:
+ * <ul>
+ *     <li>{@code emis.request.statements} - JDBC statements prepared by the request</li>
+ *     <li>{@code emis.request.connection.hold} - total time the request held pooled connections</li>
+ * </ul>
+ */
+public class DatabaseUsageFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+
+    public DatabaseUsageFilter(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        DatabaseUsage usage = DatabaseUsage.start();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            DatabaseUsage.end();
+            record(request, usage);
+        }
+    }
+
+    private void record(HttpServletRequest request, DatabaseUsage usage) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        // Unmapped requests (404s, static resources) would only add noise and unbounded tag values
+        if (pattern == null) {
+            return;
+        }
+        String uri = pattern.toString();
+        DistributionSummary.builder("emis.request.statements")
+                .description("JDBC statements prepared per request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(usage.getStatements());
+        Timer.builder("emis.request.connection.hold")
+                .description("Time connections were held per request")
+                .tags("method", request.getMethod(), "uri", uri)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(usage.getConnectionHoldNanos(), TimeUnit.NANOSECONDS);
+    }
+}
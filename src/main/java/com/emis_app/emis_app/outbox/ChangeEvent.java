@@ -0,0 +1,25 @@
+package com.emis_app.emis_app.outbox;
+
+import com.emis_app.emis_app.entity.OutboxEvent;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+
+import java.time.LocalDateTime;
+
+/**
+ * The message published for an {@link OutboxEvent}. {@code event_id} increases with every change,
+ * so consumers can drop redeliveries by remembering the last id seen per entity.
+ */
+public record ChangeEvent(
+        @JsonProperty("event_id") Long eventId,
+        @JsonProperty("aggregate_type") String aggregateType,
+        @JsonProperty("aggregate_id") Long aggregateId,
+        @JsonProperty("event_type") String eventType,
+        @JsonProperty("occurred_at") LocalDateTime occurredAt,
+        @JsonProperty("data") @JsonRawValue String data) {
+
+    static ChangeEvent of(OutboxEvent event) {
+        return new ChangeEvent(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getEventType(),
+                event.getCreatedAt(), event.getPayload());
+    }
+}
@@ -0,0 +1,144 @@
+package com.emis_app.emis_app.outbox;
+
+import com.emis_app.emis_app.entity.OutboxEvent;
+import com.emis_app.emis_app.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox to Kafka. Each run reads the oldest batch of events, sends them in id order
+ * keyed by entity id (so every entity's events stay ordered on one partition), waits for the acks
+ * and deletes what was acknowledged. The read and the delete are separate short transactions, so no
+ * row lock or pooled connection is held while waiting on the broker. Sending stops at the first
+ * failure so later events for the same entity are not published ahead of it; delivery is
+ * at-least-once. Two relay instances may publish the same events, which consumers already drop by
+ * {@code event_id}.
+ * <p>
+ * Publishes {@code emis.outbox.published} and {@code emis.outbox.failures} by aggregate type,
+ * {@code emis.outbox.lag} (time from the change to the broker ack) and {@code emis.outbox.pending}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "emis.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, ChangeEvent> kafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final String learnerTopic;
+    private final String schoolTopic;
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final AtomicLong pending = new AtomicLong();
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, ChangeEvent> kafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry meterRegistry,
+                       @Value("${emis.kafka.topics.learner-changes:emis.learners.changes}") String learnerTopic,
+                       @Value("${emis.kafka.topics.school-changes:emis.schools.changes}") String schoolTopic,
+                       @Value("${emis.outbox.relay.batch-size:500}") int batchSize,
+                       @Value("${emis.outbox.relay.send-timeout:PT10S}") Duration sendTimeout) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.learnerTopic = learnerTopic;
+        this.schoolTopic = schoolTopic;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        Gauge.builder("emis.outbox.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting to be published, as of the last relay run")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${emis.outbox.relay.interval:PT1S}")
+    public void relay() {
+        int published;
+        do {
+            published = publishBatch();
+        } while (published == batchSize);
+        pending.set(outboxEventRepository.count());
+    }
+
+    /**
+     * Publishes and deletes one batch; returns how many events were acknowledged.
+     */
+    int publishBatch() {
+        // Read in a read-write transaction so it goes to the primary, never a lagging replica
+        List<OutboxEvent> events = transactionTemplate.execute(status -> outboxEventRepository.findOldest(batchSize));
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, ChangeEvent>>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            try {
+                sends.add(kafkaTemplate.send(topicFor(event), event.getAggregateId().toString(), ChangeEvent.of(event)));
+            } catch (RuntimeException e) {
+                // e.g. broker metadata unavailable; nothing after this event may go out before it
+                sends.add(CompletableFuture.failedFuture(e));
+                break;
+            }
+        }
+
+        List<OutboxEvent> acknowledged = new ArrayList<>(sends.size());
+        for (int i = 0; i < sends.size(); i++) {
+            OutboxEvent event = events.get(i);
+            try {
+                sends.get(i).get(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (ExecutionException | TimeoutException e) {
+                counter("emis.outbox.failures", event).increment();
+                Throwable cause = e instanceof ExecutionException ? e.getCause() : e;
+                log.warn("Publishing outbox event {} ({} {}) failed; retrying on the next run: {}", event.getId(),
+                        event.getAggregateType(), event.getAggregateId(), cause.getMessage());
+                break;
+            }
+            acknowledged.add(event);
+            counter("emis.outbox.published", event).increment();
+            Timer.builder("emis.outbox.lag")
+                    .description("Time from the change to its publication")
+                    .register(meterRegistry)
+                    .record(Duration.between(event.getCreatedAt(), LocalDateTime.now()));
+        }
+        if (!acknowledged.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteAllInBatch(acknowledged));
+        }
+        return acknowledged.size();
+    }
+
+    private String topicFor(OutboxEvent event) {
+        return OutboxService.SCHOOL.equals(event.getAggregateType()) ? schoolTopic : learnerTopic;
+    }
+
+    private Counter counter(String name, OutboxEvent event) {
+        return Counter.builder(name)
+                .tag("aggregate", event.getAggregateType())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,83 @@
+package com.emis_app.emis_app.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records change events for learners and schools. Must be called inside the transaction that makes
+ * the change, so the event is committed or rolled back with it. Deleting a school also deletes its
+ * learners; that is published as the single SCHOOL DELETED event.
+ * <p>
+ * Rows are inserted straight away with JDBC, taking the id from the sequence inside the INSERT, so
+ * ids follow the order events were recorded across application instances (the relay publishes in
+ * id order) and bulk paths can write all their events in one batch.
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    public static final String LEARNER = "LEARNER";
+    public static final String SCHOOL = "SCHOOL";
+
+    public static final String CREATED = "CREATED";
+    public static final String UPDATED = "UPDATED";
+    public static final String DELETED = "DELETED";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final String insert;
+
+    public OutboxService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        String nextId = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect()
+                .getSequenceSupport().getSelectSequenceNextValString("outbox_events_seq");
+        this.insert = "INSERT INTO outbox_events (id, aggregate_type, aggregate_id, event_type, payload, created_at) "
+                + "VALUES (" + nextId + ", ?, ?, ?, ?, ?)";
+    }
+
+    public void created(String aggregateType, Long aggregateId, Object state) {
+        record(aggregateType, List.of(Map.entry(aggregateId, state)), CREATED);
+    }
+
+    public void created(String aggregateType, Map<Long, ?> statesById) {
+        record(aggregateType, new ArrayList<>(statesById.entrySet()), CREATED);
+    }
+
+    public void updated(String aggregateType, Long aggregateId, Object state) {
+        record(aggregateType, List.of(Map.entry(aggregateId, state)), UPDATED);
+    }
+
+    public void deleted(String aggregateType, Long aggregateId) {
+        jdbcTemplate.update(insert, aggregateType, aggregateId, DELETED, null, Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    private void record(String aggregateType, List<? extends Map.Entry<Long, ?>> states, String eventType) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(states.size());
+        for (Map.Entry<Long, ?> state : states) {
+            rows.add(new Object[]{aggregateType, state.getKey(), eventType, toJson(aggregateType, state), now});
+        }
+        jdbcTemplate.batchUpdate(insert, rows);
+    }
+
+    private String toJson(String aggregateType, Map.Entry<Long, ?> state) {
+        try {
+            return objectMapper.writeValueAsString(state.getValue());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Could not serialize " + aggregateType + " " + state.getKey() + " change event", e);
+        }
+    }
+}
@@ -10,9 +10,11 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface LearnerRepository extends JpaRepository<Learner, Long>, JpaSpecificationExecutor<Learner> {
+public interface LearnerRepository extends JpaRepository<Learner, Long>, JpaSpecificationExecutor<Learner>,
+        LearnerRepositoryCustom {
 
     // Basic search methods
     Page<Learner> findByNameContainingIgnoreCase(String name, Pageable pageable);
@@ -25,23 +27,9 @@ public interface LearnerRepository extends JpaRepository<Learner, Long>, JpaSpec
 
     Page<Learner> findBySchoolId(Long schoolId, Pageable pageable);
 
-    // Combined search methods
-    @Query("SELECT l FROM Learner l JOIN l.school s WHERE " +
-            "(:name IS NULL OR LOWER(l.name) LIKE LOWER(CONCAT('%', CAST(:name AS string), '%'))) AND " +
-            "(:gender IS NULL OR LOWER(l.gender) = LOWER(CAST(:gender AS string))) AND " +
-            "(:grade IS NULL OR LOWER(l.grade) = LOWER(CAST(:grade AS string))) AND " +
-            "(:academicYear IS NULL OR l.academicYear = :academicYear) AND " +
-            "(:schoolId IS NULL OR l.school.id = :schoolId) AND " +
-            "(:schoolName IS NULL OR LOWER(s.name) LIKE LOWER(CONCAT('%', CAST(:schoolName AS string), '%')))")
-    Page<Learner> findBySearchCriteria(
-            @Param("name") String name,
-            @Param("gender") String gender,
-            @Param("grade") String grade,
-            @Param("academicYear") String academicYear,
-            @Param("schoolId") Long schoolId,
-            @Param("schoolName") String schoolName,
-            Pageable pageable);
-
+    // Conditional GET: the learner row plus its school's row, which supplies school_name
+    @Query("SELECT l.updatedAt, s.updatedAt FROM Learner l JOIN l.school s WHERE l.id = :id")
+    List<Object[]> findVersionById(@Param("id") Long id);
 
     // Statistical queries
     @Query("SELECT l.gender, COUNT(l) FROM Learner l GROUP BY l.gender")
@@ -56,6 +44,14 @@ public interface LearnerRepository extends JpaRepository<Learner, Long>, JpaSpec
     @Query("SELECT s.name, COUNT(l) FROM Learner l JOIN l.school s GROUP BY s.name ORDER BY COUNT(l) DESC")
     List<Object[]> countLearnersBySchool();
 
+    @Query("SELECT l.school.id, l.gender, l.grade, l.academicYear, COUNT(l) FROM Learner l " +
+            "GROUP BY l.school.id, l.gender, l.grade, l.academicYear")
+    List<Object[]> countLearnersBySchoolGenderGradeAndAcademicYear();
+
+    // Search index loading, in id order so posting lists are built by appending
+    @Query("SELECT l.id, l.name FROM Learner l ORDER BY l.id")
+    Stream<Object[]> streamIdsAndNames();
+
     // School-specific queries
     Long countBySchoolId(Long schoolId);
 
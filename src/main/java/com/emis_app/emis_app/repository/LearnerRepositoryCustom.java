@@ -0,0 +1,48 @@
+package com.emis_app.emis_app.repository;
+
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.entity.Learner;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+public interface LearnerRepositoryCustom {
+
+    /**
+     * Streams learners matching the specification as DTOs through a forward-only cursor. Rows are
+     * projected straight into {@link LearnerDTO} (school name included), so nothing is attached to
+     * the persistence context. Must be consumed inside a transaction and closed by the caller.
+     */
+    Stream<LearnerDTO> streamDTOs(Specification<Learner> spec, Sort sort, int fetchSize);
+
+    /**
+     * Returns one page of learners projected into {@link LearnerDTO} with a single select, plus the
+     * COUNT query when the total cannot be inferred from the page itself. Only the columns in
+     * {@code fields} (and the sort keys) are selected; the school is joined only for school_name.
+     */
+    Page<LearnerDTO> findDTOs(Specification<Learner> spec, Pageable pageable, FieldSet fields);
+
+    /**
+     * Like {@link #findDTOs(Specification, Pageable, FieldSet)} but without a COUNT: fetches one extra
+     * row to decide whether a next slice exists.
+     */
+    Slice<LearnerDTO> findDTOSlice(Specification<Learner> spec, Pageable pageable, FieldSet fields);
+
+    /**
+     * Returns at most {@code limit} learners as DTOs in the given order, for keyset pagination and
+     * single-learner lookups.
+     */
+    List<LearnerDTO> findDTOs(Specification<Learner> spec, Sort sort, int limit, FieldSet fields);
+
+    /**
+     * Persists new learners, flushing and clearing the persistence context every {@code flushSize}
+     * rows so inserts go out as JDBC batches and the session does not grow with the input.
+     */
+    void persistInBatches(List<Learner> learners, int flushSize);
+}
@@ -0,0 +1,122 @@
+package com.emis_app.emis_app.repository;
+
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.entity.Learner;
+import com.emis_app.emis_app.entity.School;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.emis_app.emis_app.repository.Projections.column;
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class LearnerRepositoryImpl implements LearnerRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Stream<LearnerDTO> streamDTOs(Specification<Learner> spec, Sort sort, int fetchSize) {
+        return entityManager.createQuery(dtoQuery(spec, sort, FieldSet.ALL))
+                .setHint(AvailableHints.HINT_FETCH_SIZE, fetchSize)
+                .getResultStream();
+    }
+
+    @Override
+    public Page<LearnerDTO> findDTOs(Specification<Learner> spec, Pageable pageable, FieldSet fields) {
+        List<LearnerDTO> content = entityManager.createQuery(dtoQuery(spec, pageable.getSort(), fields))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> countDTOs(spec));
+    }
+
+    @Override
+    public Slice<LearnerDTO> findDTOSlice(Specification<Learner> spec, Pageable pageable, FieldSet fields) {
+        List<LearnerDTO> rows = entityManager.createQuery(dtoQuery(spec, pageable.getSort(), fields))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<LearnerDTO> findDTOs(Specification<Learner> spec, Sort sort, int limit, FieldSet fields) {
+        return entityManager.createQuery(dtoQuery(spec, sort, fields))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Selects exactly the LearnerDTO columns; constructor results are never attached to the persistence context.
+    // Columns outside the fieldset are selected as NULL literals, and the school is joined only for its name.
+    private CriteriaQuery<LearnerDTO> dtoQuery(Specification<Learner> spec, Sort sort, FieldSet fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<LearnerDTO> query = cb.createQuery(LearnerDTO.class);
+        Root<Learner> learner = query.from(Learner.class);
+        Selection<String> schoolName = fields.includes("school_name")
+                ? learner.join("school").get("name")
+                : cb.nullLiteral(String.class);
+
+        query.select(cb.construct(LearnerDTO.class,
+                column(cb, fields, sort, "id", "id", learner.get("id")),
+                column(cb, fields, sort, "name", "name", learner.get("name")),
+                column(cb, fields, sort, "gender", "gender", learner.get("gender")),
+                column(cb, fields, sort, "grade", "grade", learner.get("grade")),
+                column(cb, fields, sort, "academic_year", "academicYear", learner.get("academicYear")),
+                column(cb, fields, sort, "school_id", "school.id", learner.get("school").get("id")),
+                schoolName,
+                column(cb, fields, sort, "created_at", "createdAt", learner.get("createdAt")),
+                column(cb, fields, sort, "updated_at", "updatedAt", learner.get("updatedAt"))));
+
+        Predicate predicate = spec.toPredicate(learner, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, learner, cb));
+        return query;
+    }
+
+    private long countDTOs(Specification<Learner> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Learner> learner = query.from(Learner.class);
+        query.select(cb.count(learner));
+
+        Predicate predicate = spec.toPredicate(learner, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public void persistInBatches(List<Learner> learners, int flushSize) {
+        for (int i = 0; i < learners.size(); i++) {
+            entityManager.persist(learners.get(i));
+            if ((i + 1) % flushSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
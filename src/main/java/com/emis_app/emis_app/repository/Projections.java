@@ -0,0 +1,29 @@
+package com.emis_app.emis_app.repository;
+
+import com.emis_app.emis_app.dto.FieldSet;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Select-list helpers for the DTO projection queries.
+ */
+final class Projections {
+
+    private Projections() {
+    }
+
+    /**
+     * The attribute when the fieldset asks for {@code field}, otherwise a typed NULL literal so the
+     * DTO constructor still resolves but the column is not read. Sort keys are always selected:
+     * keyset pagination reads them back from the last row.
+     */
+    static Selection<?> column(CriteriaBuilder cb, FieldSet fields, Sort sort, String field, String attribute,
+                               Path<?> path) {
+        if (fields.includes(field) || sort.getOrderFor(attribute) != null) {
+            return path;
+        }
+        return cb.nullLiteral(path.getJavaType());
+    }
+}
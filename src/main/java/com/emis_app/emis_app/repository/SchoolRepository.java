@@ -5,15 +5,19 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface SchoolRepository extends JpaRepository<School, Long>, JpaSpecificationExecutor<School> {
+public interface SchoolRepository extends JpaRepository<School, Long>, JpaSpecificationExecutor<School>,
+        SchoolRepositoryCustom {
 
     // Basic search methods
     Page<School> findByNameContainingIgnoreCase(String name, Pageable pageable);
@@ -24,36 +28,61 @@ public interface SchoolRepository extends JpaRepository<School, Long>, JpaSpecif
 
     Page<School> findByEnrollmentCapacityBetween(Integer minCapacity, Integer maxCapacity, Pageable pageable);
 
-    // Combined search methods
-    @Query("SELECT s FROM School s WHERE " +
-            "(:name IS NULL OR LOWER(s.name) LIKE LOWER(CONCAT('%', CAST(:name AS string), '%'))) AND " +
-            "(:schoolType IS NULL OR LOWER(s.schoolType) = LOWER(CAST(:schoolType AS string))) AND " +
-            "(:location IS NULL OR LOWER(s.location) LIKE LOWER(CONCAT('%', CAST(:location AS string), '%'))) AND " +
-            "(:minCapacity IS NULL OR s.enrollmentCapacity >= :minCapacity) AND " +
-            "(:maxCapacity IS NULL OR s.enrollmentCapacity <= :maxCapacity)")
-    Page<School> findBySearchCriteria(
-            @Param("name") String name,
-            @Param("schoolType") String schoolType,
-            @Param("location") String location,
-            @Param("minCapacity") Integer minCapacity,
-            @Param("maxCapacity") Integer maxCapacity,
-            Pageable pageable);
-
-
-
-
     // Statistical queries
     @Query("SELECT COUNT(l) FROM Learner l WHERE l.school.id = :schoolId")
     Long countLearnersBySchoolId(@Param("schoolId") Long schoolId);
 
+    @Query("SELECT l.school.id, COUNT(l) FROM Learner l WHERE l.school.id IN :schoolIds GROUP BY l.school.id")
+    List<Object[]> countLearnersBySchoolIds(@Param("schoolIds") Collection<Long> schoolIds);
+
+    // Conditional GET: everything a single school response depends on, from the primary key alone
+    @Query("SELECT s.updatedAt, s.enrolledCount FROM School s WHERE s.id = :id")
+    List<Object[]> findVersionById(@Param("id") Long id);
+
+    // Cache revalidation for multi-gets
+    @Query("SELECT s.id, s.updatedAt FROM School s WHERE s.id IN :ids")
+    List<Object[]> findUpdatedAtByIds(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT s.schoolType, COUNT(s) FROM School s GROUP BY s.schoolType")
     List<Object[]> countSchoolsByType();
 
+    @Query("SELECT s.id, s.name, s.schoolType FROM School s")
+    List<Object[]> findIdsNamesAndTypes();
+
     // Availability check
-    @Query("SELECT s FROM School s WHERE s.enrollmentCapacity > " +
-            "(SELECT COUNT(l) FROM Learner l WHERE l.school.id = s.id)")
+    @Query("SELECT s FROM School s WHERE s.enrolledCount < s.enrollmentCapacity")
     Page<School> findSchoolsWithAvailableCapacity(Pageable pageable);
 
+    // Enrollment counter: each statement is atomic, so concurrent enrollments cannot oversubscribe a school
+    @Modifying
+    @Query("UPDATE School s SET s.enrolledCount = s.enrolledCount + :seats " +
+            "WHERE s.id = :schoolId AND s.enrolledCount + :seats <= s.enrollmentCapacity")
+    int reserveSeats(@Param("schoolId") Long schoolId, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE School s SET s.enrolledCount = s.enrolledCount - :seats " +
+            "WHERE s.id = :schoolId AND s.enrolledCount >= :seats")
+    int releaseSeats(@Param("schoolId") Long schoolId, @Param("seats") int seats);
+
+    @Query("SELECT s.enrolledCount FROM School s WHERE s.id = :schoolId")
+    Optional<Integer> findEnrolledCountById(@Param("schoolId") Long schoolId);
+
+    // Reconciliation: drift candidates are found without locks, then each is re-counted under its row lock
+    @Query("SELECT s.id FROM School s " +
+            "WHERE s.enrolledCount <> (SELECT CAST(COUNT(l) AS Integer) FROM Learner l WHERE l.school = s)")
+    List<Long> findIdsWithEnrolledCountDrift();
+
+    @Query(value = "SELECT enrolled_count FROM schools WHERE id = :schoolId FOR UPDATE", nativeQuery = true)
+    Optional<Integer> lockEnrolledCountById(@Param("schoolId") Long schoolId);
+
+    @Modifying
+    @Query("UPDATE School s SET s.enrolledCount = :enrolledCount WHERE s.id = :schoolId")
+    int setEnrolledCount(@Param("schoolId") Long schoolId, @Param("enrolledCount") int enrolledCount);
+
+    // Search index loading, in id order so posting lists are built by appending
+    @Query("SELECT s.id, s.name, s.location FROM School s ORDER BY s.id")
+    Stream<Object[]> streamIdsNamesAndLocations();
+
     Optional<School> findByNameIgnoreCase(String name);
 
     boolean existsByNameIgnoreCase(String name);
@@ -0,0 +1,32 @@
+package com.emis_app.emis_app.repository;
+
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.entity.School;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+public interface SchoolRepositoryCustom {
+
+    /**
+     * Returns one page of schools projected into {@link SchoolDTO}, selecting only the columns in
+     * {@code fields} (and the sort keys). learners_count is left null for the caller to fill in.
+     */
+    Page<SchoolDTO> findDTOs(Specification<School> spec, Pageable pageable, FieldSet fields);
+
+    /**
+     * Like {@link #findDTOs(Specification, Pageable, FieldSet)} but without a COUNT: fetches one extra
+     * row to decide whether a next slice exists.
+     */
+    Slice<SchoolDTO> findDTOSlice(Specification<School> spec, Pageable pageable, FieldSet fields);
+
+    /**
+     * Returns at most {@code limit} schools as DTOs in the given order, for keyset pagination.
+     */
+    List<SchoolDTO> findDTOs(Specification<School> spec, Sort sort, int limit, FieldSet fields);
+}
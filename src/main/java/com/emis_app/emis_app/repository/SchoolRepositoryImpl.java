@@ -0,0 +1,91 @@
+package com.emis_app.emis_app.repository;
+
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.entity.School;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+import static com.emis_app.emis_app.repository.Projections.column;
+import static org.springframework.data.jpa.repository.query.QueryUtils.toOrders;
+
+public class SchoolRepositoryImpl implements SchoolRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<SchoolDTO> findDTOs(Specification<School> spec, Pageable pageable, FieldSet fields) {
+        List<SchoolDTO> content = entityManager.createQuery(dtoQuery(spec, pageable.getSort(), fields))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize())
+                .getResultList();
+        return PageableExecutionUtils.getPage(content, pageable, () -> countDTOs(spec));
+    }
+
+    @Override
+    public Slice<SchoolDTO> findDTOSlice(Specification<School> spec, Pageable pageable, FieldSet fields) {
+        List<SchoolDTO> rows = entityManager.createQuery(dtoQuery(spec, pageable.getSort(), fields))
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+
+    @Override
+    public List<SchoolDTO> findDTOs(Specification<School> spec, Sort sort, int limit, FieldSet fields) {
+        return entityManager.createQuery(dtoQuery(spec, sort, fields))
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // The id is always selected: learners_count is keyed by it. Other columns outside the fieldset are NULL literals.
+    private CriteriaQuery<SchoolDTO> dtoQuery(Specification<School> spec, Sort sort, FieldSet fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<SchoolDTO> query = cb.createQuery(SchoolDTO.class);
+        Root<School> school = query.from(School.class);
+
+        query.select(cb.construct(SchoolDTO.class,
+                school.get("id"),
+                column(cb, fields, sort, "name", "name", school.get("name")),
+                column(cb, fields, sort, "school_type", "schoolType", school.get("schoolType")),
+                column(cb, fields, sort, "location", "location", school.get("location")),
+                column(cb, fields, sort, "enrollment_capacity", "enrollmentCapacity", school.get("enrollmentCapacity")),
+                column(cb, fields, sort, "created_at", "createdAt", school.get("createdAt")),
+                column(cb, fields, sort, "updated_at", "updatedAt", school.get("updatedAt"))));
+
+        Predicate predicate = spec.toPredicate(school, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(toOrders(sort, school, cb));
+        return query;
+    }
+
+    private long countDTOs(Specification<School> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<School> school = query.from(School.class);
+        query.select(cb.count(school));
+
+        Predicate predicate = spec.toPredicate(school, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+}
@@ -0,0 +1,121 @@
+package com.emis_app.emis_app.search;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory trigram inverted index for case-insensitive substring search. Every indexed text is
+ * split into overlapping three-character grams; a query is answered by intersecting the posting
+ * sets of its own grams and then checking the surviving candidates against their stored text, so
+ * results are exact rather than approximate. Postings are primitive {@link PostingList}s so the
+ * index stays within a few bytes per gram occurrence even with millions of documents.
+ */
+public class NgramIndex {
+
+    public static final int GRAM_LENGTH = 3;
+
+    private final Map<String, PostingList> postings = new ConcurrentHashMap<>();
+    private final Map<Long, String> documents = new ConcurrentHashMap<>();
+
+    public void put(Long id, String text) {
+        String normalized = normalize(text);
+        documents.compute(id, (key, previous) -> {
+            if (previous != null) {
+                grams(previous).forEach(gram -> removePosting(gram, id));
+            }
+            grams(normalized).forEach(gram -> addPosting(gram, id));
+            return normalized;
+        });
+    }
+
+    /**
+     * Adds a document unless the id is already indexed. Used while bulk-loading so that a row loaded
+     * from a slightly older snapshot never overwrites a newer value applied by a live update.
+     */
+    public void putIfAbsent(Long id, String text) {
+        String normalized = normalize(text);
+        documents.computeIfAbsent(id, key -> {
+            grams(normalized).forEach(gram -> addPosting(gram, id));
+            return normalized;
+        });
+    }
+
+    public void remove(Long id) {
+        documents.computeIfPresent(id, (key, previous) -> {
+            grams(previous).forEach(gram -> removePosting(gram, id));
+            return null;
+        });
+    }
+
+    /**
+     * Returns the ids of every document containing the query. Queries shorter than
+     * {@link #GRAM_LENGTH} cannot be answered from the index and must be resolved elsewhere.
+     */
+    public Set<Long> search(String query) {
+        String normalized = normalize(query);
+        if (normalized.length() < GRAM_LENGTH) {
+            throw new IllegalArgumentException("Query must be at least " + GRAM_LENGTH + " characters");
+        }
+
+        PostingList smallest = null;
+        for (String gram : grams(normalized)) {
+            PostingList posting = postings.get(gram);
+            if (posting == null || posting.isEmpty()) {
+                return Set.of();
+            }
+            if (smallest == null || posting.size() < smallest.size()) {
+                smallest = posting;
+            }
+        }
+
+        Set<Long> matches = new HashSet<>();
+        for (long id : smallest.toArray()) {
+            String text = documents.get(id);
+            if (text != null && text.contains(normalized)) {
+                matches.add(id);
+            }
+        }
+        return matches;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public void clear() {
+        documents.clear();
+        postings.clear();
+    }
+
+    // Posting lists are only mutated inside compute() so a list is never modified after being unlinked
+    private void addPosting(String gram, Long id) {
+        postings.compute(gram, (key, ids) -> {
+            PostingList updated = ids == null ? new PostingList() : ids;
+            updated.add(id);
+            return updated;
+        });
+    }
+
+    private void removePosting(String gram, Long id) {
+        postings.computeIfPresent(gram, (key, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+}
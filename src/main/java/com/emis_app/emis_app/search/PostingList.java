@@ -0,0 +1,56 @@
+package com.emis_app.emis_app.search;
+
+import java.util.Arrays;
+
+/**
+ * Sorted set of document ids for one gram, kept in a primitive array: eight bytes per id instead of
+ * a boxed Long plus a hash-set node. Ids come from a sequence and the index is bulk-loaded in id
+ * order, so nearly every addition appends; inserting or removing anywhere else shifts the tail.
+ */
+final class PostingList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int size;
+
+    synchronized void add(long id) {
+        int index = size == 0 || id > ids[size - 1] ? -size - 1 : Arrays.binarySearch(ids, 0, size, id);
+        if (index >= 0) {
+            return;
+        }
+        int insertAt = -index - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+    }
+
+    synchronized void remove(long id) {
+        int index = Arrays.binarySearch(ids, 0, size, id);
+        if (index < 0) {
+            return;
+        }
+        System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+        size--;
+        // Give memory back once a shrinking list uses less than a quarter of its array
+        if (ids.length > INITIAL_CAPACITY && size < ids.length / 4) {
+            ids = Arrays.copyOf(ids, Math.max(INITIAL_CAPACITY, size * 2));
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Copy taken under the lock, so callers can iterate while the list keeps changing
+    synchronized long[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
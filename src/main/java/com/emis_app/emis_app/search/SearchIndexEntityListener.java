@@ -0,0 +1,65 @@
+package com.emis_app.emis_app.search;
+
+import com.emis_app.emis_app.entity.Learner;
+import com.emis_app.emis_app.entity.School;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps the search index in step with learner and school writes. Changes are applied once the
+ * surrounding transaction commits, so rolled-back writes never reach the index.
+ */
+@Component
+public class SearchIndexEntityListener {
+
+    // Resolved lazily: the listener is created while the EntityManagerFactory that the index depends on is being built
+    private final ObjectProvider<SearchIndexService> searchIndexService;
+
+    public SearchIndexEntityListener(ObjectProvider<SearchIndexService> searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        if (entity instanceof Learner learner) {
+            Long id = learner.getId();
+            String name = learner.getName();
+            afterCommit(() -> searchIndexService.getObject().indexLearner(id, name));
+        } else if (entity instanceof School school) {
+            Long id = school.getId();
+            String name = school.getName();
+            String location = school.getLocation();
+            afterCommit(() -> searchIndexService.getObject().indexSchool(id, name, location));
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        if (entity instanceof Learner learner) {
+            Long id = learner.getId();
+            afterCommit(() -> searchIndexService.getObject().removeLearner(id));
+        } else if (entity instanceof School school) {
+            Long id = school.getId();
+            afterCommit(() -> searchIndexService.getObject().removeSchool(id));
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
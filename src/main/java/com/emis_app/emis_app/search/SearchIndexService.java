@@ -0,0 +1,103 @@
+package com.emis_app.emis_app.search;
+
+import com.emis_app.emis_app.repository.LearnerRepository;
+import com.emis_app.emis_app.repository.SchoolRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Resolves substring searches on learner names, school names and school locations to candidate ids
+ * from in-memory trigram indexes, so the database only has to fetch rows by primary key instead of
+ * scanning with LIKE '%...%'. Lookups return empty when the index cannot answer (not yet built,
+ * query too short, or too many matches for an IN list) and callers fall back to the database.
+ */
+@Slf4j
+@Service
+public class SearchIndexService {
+
+    private final LearnerRepository learnerRepository;
+    private final SchoolRepository schoolRepository;
+    private final boolean enabled;
+    private final int maxCandidates;
+
+    private final NgramIndex learnerNames = new NgramIndex();
+    private final NgramIndex schoolNames = new NgramIndex();
+    private final NgramIndex schoolLocations = new NgramIndex();
+    private volatile boolean ready;
+
+    public SearchIndexService(LearnerRepository learnerRepository, SchoolRepository schoolRepository,
+                              @Value("${emis.search.index.enabled:true}") boolean enabled,
+                              @Value("${emis.search.index.max-candidates:5000}") int maxCandidates) {
+        this.learnerRepository = learnerRepository;
+        this.schoolRepository = schoolRepository;
+        this.enabled = enabled;
+        this.maxCandidates = maxCandidates;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        if (!enabled) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        try (Stream<Object[]> schools = schoolRepository.streamIdsNamesAndLocations()) {
+            schools.forEach(row -> {
+                schoolNames.putIfAbsent((Long) row[0], (String) row[1]);
+                schoolLocations.putIfAbsent((Long) row[0], (String) row[2]);
+            });
+        }
+        try (Stream<Object[]> learners = learnerRepository.streamIdsAndNames()) {
+            learners.forEach(row -> learnerNames.putIfAbsent((Long) row[0], (String) row[1]));
+        }
+        ready = true;
+        log.info("Search index built with {} learners and {} schools in {} ms",
+                learnerNames.size(), schoolNames.size(), System.currentTimeMillis() - started);
+    }
+
+    public Optional<Set<Long>> findLearnerIdsByName(String name) {
+        return lookup(learnerNames, name);
+    }
+
+    public Optional<Set<Long>> findSchoolIdsByName(String name) {
+        return lookup(schoolNames, name);
+    }
+
+    public Optional<Set<Long>> findSchoolIdsByLocation(String location) {
+        return lookup(schoolLocations, location);
+    }
+
+    public void indexLearner(Long id, String name) {
+        learnerNames.put(id, name);
+    }
+
+    public void removeLearner(Long id) {
+        learnerNames.remove(id);
+    }
+
+    public void indexSchool(Long id, String name, String location) {
+        schoolNames.put(id, name);
+        schoolLocations.put(id, location);
+    }
+
+    public void removeSchool(Long id) {
+        schoolNames.remove(id);
+        schoolLocations.remove(id);
+    }
+
+    private Optional<Set<Long>> lookup(NgramIndex index, String query) {
+        if (!ready || query == null || query.length() < NgramIndex.GRAM_LENGTH) {
+            return Optional.empty();
+        }
+        Set<Long> ids = index.search(query);
+        return ids.size() > maxCandidates ? Optional.empty() : Optional.of(ids);
+    }
+}
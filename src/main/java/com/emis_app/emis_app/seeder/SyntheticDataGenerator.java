@@ -0,0 +1,394 @@
+package com.emis_app.emis_app.seeder;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates a synthetic school and learner population straight into the database. Replaces the
+ * old fixed 20-row seeder and only runs when started with {@code --emis.generator.enabled=true}:
+ * <pre>java -jar emis_app.jar --emis.generator.enabled=true --emis.generator.schools=5000 --emis.generator.learners=10000000</pre>
+ * Every school and its learners are drawn from a random stream derived from the seed and the
+ * school's position, so the same settings always produce the same data regardless of how the
+ * insert batches are scheduled across threads. Rows are written with JDBC batches, bypassing the
+ * entity layer (and therefore the search index and statistics listeners, which rebuild on startup).
+ * <p>
+ * School sizes follow a log-normal distribution; learners are apportioned to schools by size and
+ * each school's capacity is set above its enrolment by a random fill ratio, so capacity is always
+ * respected. Grades are restricted to P-grades for primary and S-grades for secondary school types.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "emis.generator.enabled", havingValue = "true")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    record SchoolPlan(String name, String schoolType, String location, int capacity, int enrolled) {
+    }
+
+    record Summary(int schools, long learners, long elapsedMillis) {
+    }
+
+    private static final String[] MALE_NAMES = {
+            "James", "David", "Samuel", "Emmanuel", "Isaac", "Patrick", "Joseph", "Daniel", "Michael", "Andrew",
+            "Brian", "Felix", "Paul", "Timothy", "Joshua", "Robert", "Simon", "Peter", "Francis", "Anthony"
+    };
+
+    private static final String[] FEMALE_NAMES = {
+            "Sarah", "Grace", "Maria", "Rebecca", "Ruth", "Joy", "Faith", "Mercy", "Patience", "Hope",
+            "Esther", "Priscilla", "Lydia", "Agnes", "Joan", "Catherine", "Betty", "Susan", "Rachel", "Winnie"
+    };
+
+    private static final String[] SURNAMES = {
+            "Okello", "Musoke", "Kato", "Ssebunya", "Mukasa", "Namugga", "Wasswa", "Kiprotich", "Asiimwe",
+            "Tumusiime", "Sekandi", "Mubiru", "Wanyama", "Kyeyune", "Kabaale", "Lubega", "Kalungi", "Kiggundu",
+            "Namukasa", "Nalwanga", "Nakamya", "Namusoke", "Akello", "Nalubega", "Namatovu", "Nakigozi",
+            "Nabirye", "Nassozi", "Nakalembe", "Namubiru", "Nakawuki", "Nankya", "Namazzi", "Namutebi", "Nambi"
+    };
+
+    private static final String[] PLACES = {
+            "Kampala", "Kawempe", "Makindye", "Nakawa", "Rubaga", "Kololo", "Bugolobi", "Muyenga", "Ntinda",
+            "Kansanga", "Banda", "Kyambogo", "Mulago", "Wandegeya", "Katwe", "Mengo", "Lubiri", "Gayaza",
+            "Kisubi", "Budo", "Entebbe", "Mukono", "Jinja", "Masaka", "Mbarara", "Gulu", "Lira", "Mbale",
+            "Fort Portal", "Arua", "Hoima", "Soroti", "Kabale", "Tororo", "Iganga", "Mityana"
+    };
+
+    private static final String SCHOOL_INSERT = "INSERT INTO schools (id, name, school_type, location, "
+            + "enrollment_capacity, enrolled_count, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String LEARNER_INSERT = "INSERT INTO learners (id, name, gender, grade, academic_year, "
+            + "school_id, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Both entity sequences are declared with allocationSize = 50
+    private static final int SEQUENCE_ALLOCATION = 50;
+
+    // Separate streams so school plans and learner rows stay independent of each other
+    private static final long SCHOOL_STREAM = 0x5C400L;
+    private static final long LEARNER_STREAM = 0x1EA7E4L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final ConfigurableApplicationContext context;
+
+    private final long seed;
+    private final int schools;
+    private final long learners;
+    private final int batchSize;
+    private final int threads;
+    private final boolean exitWhenDone;
+    private final double schoolSizeSigma;
+    private final double minFill;
+    private final double maxFill;
+    private final WeightedChoice schoolTypes;
+    private final WeightedChoice genders;
+    private final WeightedChoice academicYears;
+    private final WeightedChoice allGrades;
+    private final WeightedChoice primaryGrades;
+    private final WeightedChoice secondaryGrades;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate,
+                                  EntityManagerFactory entityManagerFactory,
+                                  ConfigurableApplicationContext context,
+                                  @Value("${emis.generator.seed:42}") long seed,
+                                  @Value("${emis.generator.schools:5000}") int schools,
+                                  @Value("${emis.generator.learners:10000000}") long learners,
+                                  @Value("${emis.generator.batch-size:5000}") int batchSize,
+                                  @Value("${emis.generator.threads:0}") int threads,
+                                  @Value("${emis.generator.exit-when-done:false}") boolean exitWhenDone,
+                                  @Value("${emis.generator.school-size-sigma:0.6}") double schoolSizeSigma,
+                                  @Value("${emis.generator.min-fill:0.6}") double minFill,
+                                  @Value("${emis.generator.max-fill:0.95}") double maxFill,
+                                  @Value("${emis.generator.school-types}") String schoolTypes,
+                                  @Value("${emis.generator.genders}") String genders,
+                                  @Value("${emis.generator.grades}") String grades,
+                                  @Value("${emis.generator.academic-years}") String academicYears) {
+        if (schools < 1 || learners < 0 || batchSize < 1) {
+            throw new IllegalArgumentException("emis.generator needs schools >= 1, learners >= 0 and batch-size >= 1");
+        }
+        if (minFill <= 0 || minFill > maxFill || maxFill > 1) {
+            throw new IllegalArgumentException("emis.generator fill ratios must satisfy 0 < min-fill <= max-fill <= 1");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.context = context;
+        this.seed = seed;
+        this.schools = schools;
+        this.learners = learners;
+        this.batchSize = batchSize;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.exitWhenDone = exitWhenDone;
+        this.schoolSizeSigma = schoolSizeSigma;
+        this.minFill = minFill;
+        this.maxFill = maxFill;
+        this.schoolTypes = WeightedChoice.parse("school-types", schoolTypes);
+        this.genders = WeightedChoice.parse("genders", genders);
+        this.academicYears = WeightedChoice.parse("academic-years", academicYears);
+        this.allGrades = WeightedChoice.parse("grades", grades);
+        this.primaryGrades = allGrades.filter("P");
+        this.secondaryGrades = allGrades.filter("S");
+    }
+
+    @Override
+    public void run(String... args) {
+        generate();
+        if (exitWhenDone) {
+            System.exit(SpringApplication.exit(context, () -> 0));
+        }
+    }
+
+    public Summary generate() {
+        long started = System.currentTimeMillis();
+        log.info("Generating {} schools and {} learners (seed {}, {} threads)", schools, learners, seed, threads);
+
+        List<SchoolPlan> plans = planSchools();
+        long schoolBase = nextSequenceValue("schools_seq");
+        long learnerBase = nextSequenceValue("learners_seq");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> schoolRows = new ArrayList<>(Math.min(plans.size(), batchSize));
+        for (int i = 0; i < plans.size(); i++) {
+            SchoolPlan plan = plans.get(i);
+            schoolRows.add(new Object[]{schoolBase + i, plan.name(), plan.schoolType(), plan.location(),
+                    plan.capacity(), plan.enrolled(), now, now});
+            if (schoolRows.size() == batchSize || i == plans.size() - 1) {
+                jdbcTemplate.batchUpdate(SCHOOL_INSERT, schoolRows);
+                schoolRows.clear();
+            }
+        }
+
+        insertLearners(plans, schoolBase, learnerBase, now);
+
+        // Move both sequences past the generated ids; the next block Hibernate allocates ends at the restart value
+        jdbcTemplate.execute("ALTER SEQUENCE schools_seq RESTART WITH " + (schoolBase + schools + SEQUENCE_ALLOCATION));
+        jdbcTemplate.execute("ALTER SEQUENCE learners_seq RESTART WITH " + (learnerBase + learners + SEQUENCE_ALLOCATION));
+
+        Summary summary = new Summary(schools, learners, System.currentTimeMillis() - started);
+        log.info("Generated {} schools and {} learners in {} ms", summary.schools(), summary.learners(), summary.elapsedMillis());
+        return summary;
+    }
+
+    /**
+     * Draws every school and apportions the learner total across them. Deterministic for a given seed.
+     */
+    List<SchoolPlan> planSchools() {
+        double[] weights = new double[schools];
+        String[] types = new String[schools];
+        String[] locations = new String[schools];
+        double[] fills = new double[schools];
+        double totalWeight = 0;
+        for (int i = 0; i < schools; i++) {
+            SplittableRandom random = random(SCHOOL_STREAM, i);
+            weights[i] = Math.exp(schoolSizeSigma * gaussian(random));
+            types[i] = schoolTypes.pick(random);
+            locations[i] = PLACES[random.nextInt(PLACES.length)];
+            fills[i] = minFill + (maxFill - minFill) * random.nextDouble();
+            totalWeight += weights[i];
+        }
+
+        // Largest-remainder apportionment, so the enrolments add up to exactly the learner total
+        long[] enrolled = new long[schools];
+        double[] remainders = new double[schools];
+        long assigned = 0;
+        for (int i = 0; i < schools; i++) {
+            double share = learners * weights[i] / totalWeight;
+            enrolled[i] = (long) share;
+            remainders[i] = share - enrolled[i];
+            assigned += enrolled[i];
+        }
+        Integer[] byRemainder = new Integer[schools];
+        Arrays.setAll(byRemainder, i -> i);
+        Arrays.sort(byRemainder, (a, b) -> Double.compare(remainders[b], remainders[a]));
+        for (int i = 0; assigned < learners; i++, assigned++) {
+            enrolled[byRemainder[i]]++;
+        }
+
+        List<SchoolPlan> plans = new ArrayList<>(schools);
+        for (int i = 0; i < schools; i++) {
+            int capacity = (int) Math.max(1, Math.ceil(enrolled[i] / fills[i]));
+            plans.add(new SchoolPlan(locations[i] + " " + kind(types[i]) + " " + (i + 1), types[i],
+                    locations[i] + " District", capacity, (int) enrolled[i]));
+        }
+        return plans;
+    }
+
+    private void insertLearners(List<SchoolPlan> plans, long schoolBase, long learnerBase, Timestamp now) {
+        // Cut the schools into consecutive runs of roughly one batch of learners each
+        List<int[]> runs = new ArrayList<>();
+        int runStart = 0;
+        long runLearners = 0;
+        for (int i = 0; i < plans.size(); i++) {
+            runLearners += plans.get(i).enrolled();
+            if (runLearners >= batchSize || i == plans.size() - 1) {
+                runs.add(new int[]{runStart, i + 1});
+                runStart = i + 1;
+                runLearners = 0;
+            }
+        }
+        long[] firstLearnerId = new long[plans.size()];
+        long nextId = learnerBase;
+        for (int i = 0; i < plans.size(); i++) {
+            firstLearnerId[i] = nextId;
+            nextId += plans.get(i).enrolled();
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(runs.size());
+            for (int[] run : runs) {
+                futures.add(executor.submit(() -> {
+                    List<Object[]> rows = new ArrayList<>(batchSize);
+                    for (int school = run[0]; school < run[1]; school++) {
+                        addLearnerRows(rows, plans.get(school), schoolBase + school, firstLearnerId[school],
+                                random(LEARNER_STREAM, school), now);
+                        if (rows.size() >= batchSize) {
+                            jdbcTemplate.batchUpdate(LEARNER_INSERT, rows);
+                            rows.clear();
+                        }
+                    }
+                    if (!rows.isEmpty()) {
+                        jdbcTemplate.batchUpdate(LEARNER_INSERT, rows);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Learner generation was interrupted", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Learner generation failed: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void addLearnerRows(List<Object[]> rows, SchoolPlan plan, long schoolId, long firstId,
+                                SplittableRandom random, Timestamp now) {
+        WeightedChoice grades = gradesFor(plan.schoolType());
+        for (int j = 0; j < plan.enrolled(); j++) {
+            String gender = genders.pick(random);
+            String[] firstNames = gender.equals("Male") ? MALE_NAMES
+                    : gender.equals("Female") ? FEMALE_NAMES
+                    : random.nextBoolean() ? MALE_NAMES : FEMALE_NAMES;
+            String name = firstNames[random.nextInt(firstNames.length)] + " " + SURNAMES[random.nextInt(SURNAMES.length)];
+            rows.add(new Object[]{firstId + j, name, gender, grades.pick(random), academicYears.pick(random),
+                    schoolId, now, now});
+        }
+    }
+
+    private WeightedChoice gradesFor(String schoolType) {
+        if (schoolType.contains("Primary") && primaryGrades != null) {
+            return primaryGrades;
+        }
+        if (schoolType.contains("Secondary") && secondaryGrades != null) {
+            return secondaryGrades;
+        }
+        return allGrades;
+    }
+
+    private long nextSequenceValue(String sequence) {
+        Dialect dialect = entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+        return jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString(sequence), Long.class);
+    }
+
+    private SplittableRandom random(long stream, long index) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + stream * 0xBF58476D1CE4E5B9L + index);
+    }
+
+    private static double gaussian(SplittableRandom random) {
+        // Box-Muller; SplittableRandom has no nextGaussian of its own
+        return Math.sqrt(-2 * Math.log(1 - random.nextDouble())) * Math.cos(2 * Math.PI * random.nextDouble());
+    }
+
+    private static String kind(String schoolType) {
+        if (schoolType.contains("Primary")) {
+            return "Primary School";
+        }
+        if (schoolType.contains("Secondary")) {
+            return "Secondary School";
+        }
+        return schoolType.contains("International") ? "International School" : "College";
+    }
+
+    /**
+     * A categorical distribution parsed from {@code value:weight} pairs, e.g. {@code Male:49,Female:50,Other:1}.
+     */
+    static final class WeightedChoice {
+
+        private final String[] values;
+        private final double[] cumulative;
+
+        private WeightedChoice(Map<String, Double> weights) {
+            values = weights.keySet().toArray(String[]::new);
+            cumulative = new double[values.length];
+            double total = 0;
+            for (int i = 0; i < values.length; i++) {
+                total += weights.get(values[i]);
+                cumulative[i] = total;
+            }
+        }
+
+        static WeightedChoice parse(String property, String spec) {
+            Map<String, Double> weights = new LinkedHashMap<>();
+            for (String entry : spec.split(",")) {
+                int colon = entry.lastIndexOf(':');
+                if (colon <= 0) {
+                    throw new IllegalArgumentException("emis.generator." + property + ": expected value:weight but got '" + entry.trim() + "'");
+                }
+                double weight = Double.parseDouble(entry.substring(colon + 1).trim());
+                if (weight < 0) {
+                    throw new IllegalArgumentException("emis.generator." + property + ": weights must not be negative");
+                }
+                weights.put(entry.substring(0, colon).trim(), weight);
+            }
+            if (weights.values().stream().mapToDouble(Double::doubleValue).sum() <= 0) {
+                throw new IllegalArgumentException("emis.generator." + property + ": at least one weight must be positive");
+            }
+            return new WeightedChoice(weights);
+        }
+
+        // Sub-distribution over values with the given prefix, or null when none carry weight
+        WeightedChoice filter(String prefix) {
+            Map<String, Double> weights = new LinkedHashMap<>();
+            double previous = 0;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i].startsWith(prefix)) {
+                    weights.put(values[i], cumulative[i] - previous);
+                }
+                previous = cumulative[i];
+            }
+            return weights.values().stream().mapToDouble(Double::doubleValue).sum() > 0 ? new WeightedChoice(weights) : null;
+        }
+
+        String pick(SplittableRandom random) {
+            double target = random.nextDouble() * cumulative[cumulative.length - 1];
+            int index = Arrays.binarySearch(cumulative, target);
+            index = index >= 0 ? index + 1 : -index - 1;
+            // Skip zero-weight values that share the cumulative total of their predecessor
+            while (index < values.length - 1 && cumulative[index] <= target) {
+                index++;
+            }
+            return values[Math.min(index, values.length - 1)];
+        }
+    }
+}
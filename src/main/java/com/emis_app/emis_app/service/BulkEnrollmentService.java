@@ -0,0 +1,175 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.BulkEnrollmentResult;
+import com.emis_app.emis_app.dto.BulkEnrollmentRowResult;
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.entity.Learner;
+import com.emis_app.emis_app.entity.School;
+import com.emis_app.emis_app.outbox.OutboxService;
+import com.emis_app.emis_app.repository.LearnerRepository;
+import com.emis_app.emis_app.repository.SchoolRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Enrolls many learners in one request. Schools and their current enrollment are loaded once for
+ * the whole batch, seats are reserved with one counter update per school, and the accepted learners
+ * are inserted in JDBC batches. Each input row gets its own entry in the result report.
+ */
+@Service
+@Timed("emis.service")
+@Transactional
+public class BulkEnrollmentService {
+
+    private static final int MAX_RESERVE_ATTEMPTS = 3;
+
+    private final LearnerRepository learnerRepository;
+    private final SchoolRepository schoolRepository;
+    private final OutboxService outboxService;
+    private final Validator validator;
+    private final int maxRows;
+    private final int flushSize;
+
+    public BulkEnrollmentService(LearnerRepository learnerRepository, SchoolRepository schoolRepository,
+                                 OutboxService outboxService, Validator validator,
+                                 @Value("${emis.bulk.max-rows:10000}") int maxRows,
+                                 @Value("${emis.bulk.flush-size:1000}") int flushSize) {
+        this.learnerRepository = learnerRepository;
+        this.schoolRepository = schoolRepository;
+        this.outboxService = outboxService;
+        this.validator = validator;
+        this.maxRows = maxRows;
+        this.flushSize = flushSize;
+    }
+
+    public BulkEnrollmentResult enrollLearners(List<LearnerDTO> learnerDTOs) {
+        if (learnerDTOs.size() > maxRows) {
+            throw new RuntimeException("Bulk enrollment is limited to " + maxRows + " learners per request");
+        }
+
+        BulkEnrollmentRowResult[] results = new BulkEnrollmentRowResult[learnerDTOs.size()];
+        Set<Long> schoolIds = new LinkedHashSet<>();
+        for (int i = 0; i < learnerDTOs.size(); i++) {
+            if (learnerDTOs.get(i) == null) {
+                results[i] = BulkEnrollmentRowResult.rejected(i, "Learner entry is missing");
+                continue;
+            }
+            String violations = validate(learnerDTOs.get(i));
+            if (violations != null) {
+                results[i] = BulkEnrollmentRowResult.rejected(i, "Validation failed: " + violations);
+            } else {
+                schoolIds.add(learnerDTOs.get(i).getSchoolId());
+            }
+        }
+
+        Map<Long, School> schools = schoolRepository.findAllById(schoolIds).stream()
+                .collect(Collectors.toMap(School::getId, Function.identity()));
+        // Seats are reserved in ascending school id order, so two bulk requests sharing schools lock the
+        // school rows in the same order and cannot deadlock
+        Map<Long, Integer> requestedSeats = new TreeMap<>();
+        for (int i = 0; i < learnerDTOs.size(); i++) {
+            if (results[i] == null && schools.containsKey(learnerDTOs.get(i).getSchoolId())) {
+                requestedSeats.merge(learnerDTOs.get(i).getSchoolId(), 1, Integer::sum);
+            }
+        }
+        Map<Long, Integer> reservedSeats = new HashMap<>();
+        requestedSeats.forEach((schoolId, seats) -> reservedSeats.put(schoolId, reserveSeats(schools.get(schoolId), seats)));
+
+        List<Learner> accepted = new ArrayList<>();
+        List<Integer> acceptedRows = new ArrayList<>();
+        for (int i = 0; i < learnerDTOs.size(); i++) {
+            if (results[i] != null) {
+                continue;
+            }
+            LearnerDTO dto = learnerDTOs.get(i);
+            School school = schools.get(dto.getSchoolId());
+            if (school == null) {
+                results[i] = BulkEnrollmentRowResult.rejected(i, "School not found with id: " + dto.getSchoolId());
+            } else if (reservedSeats.merge(school.getId(), -1, Integer::sum) < 0) {
+                results[i] = BulkEnrollmentRowResult.rejected(i, "School has reached its enrollment capacity");
+            } else {
+                accepted.add(convertToEntity(dto, school));
+                acceptedRows.add(i);
+            }
+        }
+
+        learnerRepository.persistInBatches(accepted, flushSize);
+        Map<Long, LearnerDTO> createdEvents = new LinkedHashMap<>();
+        for (int i = 0; i < accepted.size(); i++) {
+            int row = acceptedRows.get(i);
+            results[row] = BulkEnrollmentRowResult.created(row, accepted.get(i).getId());
+            createdEvents.put(accepted.get(i).getId(), toDTO(accepted.get(i)));
+        }
+        outboxService.created(OutboxService.LEARNER, createdEvents);
+
+        return new BulkEnrollmentResult(learnerDTOs.size(), accepted.size(),
+                learnerDTOs.size() - accepted.size(), Arrays.asList(results));
+    }
+
+    // Reserves as many of the requested seats as the school has left with one conditional UPDATE,
+    // re-reading the counter if a concurrent enrollment got in between
+    private int reserveSeats(School school, int requested) {
+        int enrolled = school.getEnrolledCount();
+        for (int attempt = 0; attempt < MAX_RESERVE_ATTEMPTS; attempt++) {
+            int seats = Math.min(requested, school.getEnrollmentCapacity() - enrolled);
+            if (seats <= 0) {
+                return 0;
+            }
+            if (schoolRepository.reserveSeats(school.getId(), seats) == 1) {
+                return seats;
+            }
+            enrolled = schoolRepository.findEnrolledCountById(school.getId()).orElse(school.getEnrollmentCapacity());
+        }
+        return 0;
+    }
+
+    private String validate(LearnerDTO dto) {
+        Set<ConstraintViolation<LearnerDTO>> violations = validator.validate(dto);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        Map<String, String> errors = new HashMap<>();
+        violations.forEach(violation -> errors.put(violation.getPropertyPath().toString(), violation.getMessage()));
+        return errors.toString();
+    }
+
+    private LearnerDTO toDTO(Learner learner) {
+        LearnerDTO dto = new LearnerDTO();
+        dto.setId(learner.getId());
+        dto.setName(learner.getName());
+        dto.setGender(learner.getGender());
+        dto.setGrade(learner.getGrade());
+        dto.setAcademicYear(learner.getAcademicYear());
+        dto.setSchoolId(learner.getSchool().getId());
+        dto.setSchoolName(learner.getSchool().getName());
+        dto.setCreatedAt(learner.getCreatedAt());
+        dto.setUpdatedAt(learner.getUpdatedAt());
+        return dto;
+    }
+
+    private Learner convertToEntity(LearnerDTO dto, School school) {
+        Learner learner = new Learner();
+        learner.setName(dto.getName());
+        learner.setGender(dto.getGender());
+        learner.setGrade(dto.getGrade());
+        learner.setAcademicYear(dto.getAcademicYear());
+        learner.setSchool(school);
+        return learner;
+    }
+}
@@ -0,0 +1,60 @@
+package com.emis_app.emis_app.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.StringJoiner;
+import java.util.function.LongSupplier;
+
+/**
+ * Serves approximate totals for paged listings. Each distinct set of criteria is counted exactly
+ * once and the result is reused until it expires, so clients asking for an estimate only pay for
+ * a COUNT query once per TTL instead of on every page. The cache is bounded to {@code max-entries}
+ * sets; beyond that Caffeine evicts by its W-TinyLFU policy, keeping the criteria that are asked for
+ * most often rather than strictly the most recent ones.
+ */
+@Component
+public class CountEstimator {
+
+    private final Cache<String, Long> counts;
+
+    public CountEstimator(@Value("${emis.pagination.count-cache.ttl:PT1M}") Duration ttl,
+                          @Value("${emis.pagination.count-cache.max-entries:10000}") int maxEntries) {
+        this.counts = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Key for a set of filters given as name/value pairs. A null filter is written as its bare name and
+     * values are URL-encoded, so neither the string "null" nor a value containing '&' or '=' can be
+     * mistaken for a different set of filters.
+     */
+    public static String key(Object... namesAndValues) {
+        StringJoiner key = new StringJoiner("&");
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            Object value = namesAndValues[i + 1];
+            key.add(value == null
+                    ? namesAndValues[i].toString()
+                    : namesAndValues[i] + "=" + URLEncoder.encode(value.toString(), StandardCharsets.UTF_8));
+        }
+        return key.toString();
+    }
+
+    public long estimate(String key, LongSupplier exactCount) {
+        Long cached = counts.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        long count = exactCount.getAsLong();
+        counts.put(key, count);
+        return count;
+    }
+}
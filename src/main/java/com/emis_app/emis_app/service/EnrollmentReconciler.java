@@ -0,0 +1,54 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.repository.SchoolRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+/**
+ * Periodically recomputes each school's enrolled_count from the learners table, correcting any drift
+ * left by writes that bypassed the counter (manual SQL, imports, failed compensations).
+ * Enrollments hold the school row lock from reserving a seat until they commit, so each school is
+ * re-counted in its own short transaction after locking its row; a count taken without the lock could
+ * miss a learner committed in between and write back a stale value.
+ */
+@Slf4j
+@Component
+public class EnrollmentReconciler {
+
+    private final SchoolRepository schoolRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    public EnrollmentReconciler(SchoolRepository schoolRepository, PlatformTransactionManager transactionManager) {
+        this.schoolRepository = schoolRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(initialDelayString = "${emis.enrollment.reconcile-interval:PT15M}",
+            fixedDelayString = "${emis.enrollment.reconcile-interval:PT15M}")
+    public int reconcile() {
+        int corrected = 0;
+        for (Long schoolId : schoolRepository.findIdsWithEnrolledCountDrift()) {
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> reconcile(schoolId)))) {
+                corrected++;
+            }
+        }
+        if (corrected > 0) {
+            log.warn("Corrected enrolled_count drift on {} schools", corrected);
+        }
+        return corrected;
+    }
+
+    private boolean reconcile(Long schoolId) {
+        Optional<Integer> enrolled = schoolRepository.lockEnrolledCountById(schoolId);
+        if (enrolled.isEmpty()) {
+            return false;
+        }
+        int actual = schoolRepository.countLearnersBySchoolId(schoolId).intValue();
+        return actual != enrolled.get() && schoolRepository.setEnrolledCount(schoolId, actual) > 0;
+    }
+}
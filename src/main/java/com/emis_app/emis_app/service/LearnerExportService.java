@@ -0,0 +1,125 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.ExportFormat;
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.entity.Learner;
+import com.emis_app.emis_app.repository.LearnerRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Writes whole learner populations straight from a database cursor to the response. Rows are
+ * serialized one at a time as they are fetched, so memory use does not depend on the export size.
+ */
+@Service
+@Timed("emis.service")
+public class LearnerExportService {
+
+    private static final String CSV_HEADER =
+            "id,name,gender,grade,academic_year,school_id,school_name,created_at,updated_at";
+
+    private final LearnerRepository learnerRepository;
+    private final LearnerService learnerService;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper cborMapper;
+    private final int fetchSize;
+
+    public LearnerExportService(LearnerRepository learnerRepository, LearnerService learnerService, ObjectMapper objectMapper,
+                                @Value("${emis.export.fetch-size:1000}") int fetchSize) {
+        this.learnerRepository = learnerRepository;
+        this.learnerService = learnerService;
+        this.objectMapper = objectMapper;
+        // Same modules and features as the JSON mapper, so both formats carry identical fields
+        this.cborMapper = objectMapper.copyWith(new CBORFactory());
+        this.fetchSize = fetchSize;
+    }
+
+    @Transactional(readOnly = true)
+    public void exportLearners(String name, String gender, String grade, String academicYear,
+                               Long schoolId, String schoolName, ExportFormat format, OutputStream out) throws IOException {
+        Specification<Learner> spec = learnerService.searchSpecification(name, gender, grade, academicYear, schoolId, schoolName);
+
+        try (Stream<LearnerDTO> learners = learnerRepository.streamDTOs(spec, Sort.by("id"), fetchSize)) {
+            switch (format) {
+                case NDJSON -> writeNdjson(learners.iterator(), out);
+                case CSV -> writeCsv(learners.iterator(), out);
+                case CBOR -> writeCbor(learners.iterator(), out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<LearnerDTO> learners, OutputStream out) throws IOException {
+        JsonGenerator generator = objectMapper.getFactory().createGenerator(out);
+        generator.setRootValueSeparator(new SerializedString("\n"));
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        while (learners.hasNext()) {
+            objectMapper.writeValue(generator, learners.next());
+        }
+        generator.writeRaw('\n');
+        generator.close();
+    }
+
+    private void writeCbor(Iterator<LearnerDTO> learners, OutputStream out) throws IOException {
+        JsonGenerator generator = cborMapper.getFactory().createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        while (learners.hasNext()) {
+            cborMapper.writeValue(generator, learners.next());
+        }
+        generator.close();
+    }
+
+    private void writeCsv(Iterator<LearnerDTO> learners, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (learners.hasNext()) {
+            LearnerDTO learner = learners.next();
+            writer.write(String.valueOf(learner.getId()));
+            writer.write(',');
+            writer.write(csv(learner.getName()));
+            writer.write(',');
+            writer.write(csv(learner.getGender()));
+            writer.write(',');
+            writer.write(csv(learner.getGrade()));
+            writer.write(',');
+            writer.write(csv(learner.getAcademicYear()));
+            writer.write(',');
+            writer.write(String.valueOf(learner.getSchoolId()));
+            writer.write(',');
+            writer.write(csv(learner.getSchoolName()));
+            writer.write(',');
+            writer.write(learner.getCreatedAt() == null ? "" : learner.getCreatedAt().toString());
+            writer.write(',');
+            writer.write(learner.getUpdatedAt() == null ? "" : learner.getUpdatedAt().toString());
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,52 +1,110 @@
 package com.emis_app.emis_app.service;
 
 
+import com.emis_app.emis_app.cache.ResourceVersions;
+import com.emis_app.emis_app.cache.SchoolCache;
+import com.emis_app.emis_app.cache.SchoolSnapshot;
+import com.emis_app.emis_app.dto.CursorPagedResponse;
+import com.emis_app.emis_app.dto.FieldSet;
 import com.emis_app.emis_app.dto.LearnerDTO;
 import com.emis_app.emis_app.dto.PagedResponse;
+import com.emis_app.emis_app.dto.SearchCriteria;
+import com.emis_app.emis_app.dto.TotalMode;
 import com.emis_app.emis_app.entity.Learner;
 import com.emis_app.emis_app.entity.School;
+import com.emis_app.emis_app.outbox.OutboxService;
 import com.emis_app.emis_app.repository.LearnerRepository;
 import com.emis_app.emis_app.repository.SchoolRepository;
+import com.emis_app.emis_app.search.SearchIndexService;
+import com.emis_app.emis_app.specification.KeysetCursor;
+import com.emis_app.emis_app.specification.LearnerSpecifications;
+import com.emis_app.emis_app.specification.SearchCriteriaSpecification;
+import com.emis_app.emis_app.specification.SearchOperation;
+import com.emis_app.emis_app.specification.SpecificationBuilder;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("emis.service")
 @RequiredArgsConstructor
 @Transactional
 public class LearnerService {
 
     private final LearnerRepository learnerRepository;
     private final SchoolRepository schoolRepository;
+    private final CountEstimator countEstimator;
+    private final SearchIndexService searchIndexService;
+    private final SchoolCache schoolCache;
+    private final OutboxService outboxService;
+    private final LookupBatcher lookupBatcher;
+    private final SingleFlight singleFlight;
 
     // CRUD Operations
     public LearnerDTO createLearner(LearnerDTO learnerDTO) {
-        School school = schoolRepository.findById(learnerDTO.getSchoolId())
+        SchoolSnapshot school = schoolCache.get(learnerDTO.getSchoolId())
                 .orElseThrow(() -> new RuntimeException("School not found with id: " + learnerDTO.getSchoolId()));
 
-        // Check enrollment capacity
-        Long currentEnrollment = learnerRepository.countBySchoolId(school.getId());
-        if (currentEnrollment >= school.getEnrollmentCapacity()) {
+        // Reserve a seat atomically; fails when the school is full
+        if (schoolRepository.reserveSeats(school.id(), 1) == 0) {
             throw new RuntimeException("School has reached its enrollment capacity");
         }
 
-        Learner learner = convertToEntity(learnerDTO, school);
+        Learner learner = convertToEntity(learnerDTO, schoolRepository.getReferenceById(school.id()));
         Learner savedLearner = learnerRepository.save(learner);
-        return convertToDTO(savedLearner);
+        LearnerDTO created = convertToDTO(savedLearner);
+        outboxService.created(OutboxService.LEARNER, created.getId(), created);
+        return created;
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<LearnerDTO> getLearnerById(Long id) {
-        return learnerRepository.findById(id)
-                .map(this::convertToDTO);
+        return getLearnerById(id, FieldSet.ALL);
+    }
+
+    /**
+     * Full representations are coalesced with concurrent lookups of other learners into one IN query;
+     * a sparse fieldset selects only its columns, in a read-only transaction. Opens no transaction before
+     * that so a caller waiting on a batch does not hold a connection.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<LearnerDTO> getLearnerById(Long id, FieldSet fields) {
+        if (fields.isAll() && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return lookupBatcher.coalesce("learner", id, ids -> byId(findLearners(ids, FieldSet.ALL)));
+        }
+        return lookupBatcher.readOnly(() -> findLearners(List.of(id), fields).stream().findFirst());
+    }
+
+    // Multi-get: one IN query for every id, results in the requested order, unknown ids left out
+    @Transactional(readOnly = true)
+    public List<LearnerDTO> getLearnersByIds(Collection<Long> ids, FieldSet fields) {
+        return findLearners(lookupBatcher.distinctIds(ids), fields);
+    }
+
+    // Version of the representation returned by getLearnerById, from one primary-key lookup
+    @Transactional(readOnly = true)
+    public Optional<String> getLearnerVersion(Long id) {
+        return learnerRepository.findVersionById(id).stream().findFirst()
+                .map(row -> ResourceVersions.of(id, row[0], row[1]));
     }
 
     public LearnerDTO updateLearner(Long id, LearnerDTO learnerDTO) {
@@ -55,16 +113,24 @@ public class LearnerService {
 
         // Check if school is being changed
         if (!existingLearner.getSchool().getId().equals(learnerDTO.getSchoolId())) {
-            School newSchool = schoolRepository.findById(learnerDTO.getSchoolId())
+            SchoolSnapshot newSchool = schoolCache.get(learnerDTO.getSchoolId())
                     .orElseThrow(() -> new RuntimeException("School not found with id: " + learnerDTO.getSchoolId()));
 
-            // Check new school's capacity
-            Long currentEnrollment = learnerRepository.countBySchoolId(newSchool.getId());
-            if (currentEnrollment >= newSchool.getEnrollmentCapacity()) {
+            // Move the seat from the old school to the new one. Both counter updates lock their school
+            // row, so they run in ascending id order: opposite transfers between two schools would
+            // otherwise each hold one row and wait for the other
+            Long oldSchoolId = existingLearner.getSchool().getId();
+            if (oldSchoolId < newSchool.id()) {
+                schoolRepository.releaseSeats(oldSchoolId, 1);
+            }
+            if (schoolRepository.reserveSeats(newSchool.id(), 1) == 0) {
                 throw new RuntimeException("New school has reached its enrollment capacity");
             }
+            if (oldSchoolId > newSchool.id()) {
+                schoolRepository.releaseSeats(oldSchoolId, 1);
+            }
 
-            existingLearner.setSchool(newSchool);
+            existingLearner.setSchool(schoolRepository.getReferenceById(newSchool.id()));
         }
 
         existingLearner.setName(learnerDTO.getName());
@@ -72,85 +138,166 @@ public class LearnerService {
         existingLearner.setGrade(learnerDTO.getGrade());
         existingLearner.setAcademicYear(learnerDTO.getAcademicYear());
 
-        Learner updatedLearner = learnerRepository.save(existingLearner);
-        return convertToDTO(updatedLearner);
+        // Flush before recording the event: the UPDATE takes the row lock, so a concurrent writer of the
+        // same learner waits here and draws the later event id
+        Learner updatedLearner = learnerRepository.saveAndFlush(existingLearner);
+        LearnerDTO updated = convertToDTO(updatedLearner);
+        outboxService.updated(OutboxService.LEARNER, id, updated);
+        return updated;
     }
 
     public void deleteLearner(Long id) {
-        if (!learnerRepository.existsById(id)) {
-            throw new RuntimeException("Learner not found with id: " + id);
-        }
-        learnerRepository.deleteById(id);
+        Learner learner = learnerRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Learner not found with id: " + id));
+        learnerRepository.delete(learner);
+        learnerRepository.flush();
+        schoolRepository.releaseSeats(learner.getSchool().getId(), 1);
+        outboxService.deleted(OutboxService.LEARNER, id);
     }
 
     // Search Operations
     @Transactional(readOnly = true)
-    public PagedResponse<LearnerDTO> getAllLearners(int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<LearnerDTO> getAllLearners(int page, int size, String sortBy, String sortDir, TotalMode total,
+                                                    FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Learner> learnerPage = learnerRepository.findAll(pageable);
-        return convertToPagedResponse(learnerPage);
+        return findPage(LearnerSpecifications.any(), pageable, total, "all", fields);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<LearnerDTO> searchLearnersByName(String name, int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<LearnerDTO> searchLearnersByName(String name, int page, int size, String sortBy, String sortDir,
+                                                          TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Learner> learnerPage = learnerRepository.findByNameContainingIgnoreCase(name, pageable);
-        return convertToPagedResponse(learnerPage);
+        return findPage(new SearchCriteriaSpecification<>(nameCriteria(name)), pageable, total,
+                CountEstimator.key("name", name), fields);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<LearnerDTO> searchLearnersByGender(String gender, int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<LearnerDTO> searchLearnersByGender(String gender, int page, int size, String sortBy, String sortDir,
+                                                            TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Learner> learnerPage = learnerRepository.findByGenderIgnoreCase(gender, pageable);
-        return convertToPagedResponse(learnerPage);
+        return findPage(LearnerSpecifications.hasGender(gender), pageable, total,
+                CountEstimator.key("gender", gender), fields);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<LearnerDTO> searchLearnersByGrade(String grade, int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<LearnerDTO> searchLearnersByGrade(String grade, int page, int size, String sortBy, String sortDir,
+                                                           TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Learner> learnerPage = learnerRepository.findByGradeIgnoreCase(grade, pageable);
-        return convertToPagedResponse(learnerPage);
+        return findPage(LearnerSpecifications.hasGrade(grade), pageable, total,
+                CountEstimator.key("grade", grade), fields);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<LearnerDTO> searchLearnersByAcademicYear(String academicYear, int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<LearnerDTO> searchLearnersByAcademicYear(String academicYear, int page, int size, String sortBy,
+                                                                  String sortDir, TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Learner> learnerPage = learnerRepository.findByAcademicYear(academicYear, pageable);
-        return convertToPagedResponse(learnerPage);
+        return findPage(LearnerSpecifications.hasAcademicYear(academicYear), pageable, total,
+                CountEstimator.key("academicYear", academicYear), fields);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<LearnerDTO> searchLearnersBySchool(Long schoolId, int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<LearnerDTO> searchLearnersBySchool(Long schoolId, int page, int size, String sortBy, String sortDir,
+                                                            TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Learner> learnerPage = learnerRepository.findBySchoolId(schoolId, pageable);
-        return convertToPagedResponse(learnerPage);
+        return findPage(LearnerSpecifications.hasSchoolId(schoolId), pageable, total,
+                CountEstimator.key("schoolId", schoolId), fields);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Identical concurrent searches (same criteria, ignoring case where matching does, and same page) share
+     * one execution through {@link SingleFlight}. Runs without a transaction of its own so a caller waiting
+     * on another's query does not hold a connection.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public PagedResponse<LearnerDTO> advancedSearch(String name, String gender, String grade,
                                                     String academicYear, Long schoolId, String schoolName,
-                                                    int page, int size, String sortBy, String sortDir) {
+                                                    int page, int size, String sortBy, String sortDir, TotalMode total,
+                                                    FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<Learner> learnerPage = learnerRepository.findBySearchCriteria(
-                name, gender, grade, academicYear, schoolId, schoolName, pageable);
-        return convertToPagedResponse(learnerPage);
+        String countKey = CountEstimator.key("name", name, "gender", gender, "grade", grade,
+                "academicYear", academicYear, "schoolId", schoolId, "schoolName", schoolName);
+        Supplier<PagedResponse<LearnerDTO>> search = () -> findPage(
+                searchSpecification(name, gender, grade, academicYear, schoolId, schoolName), pageable, total, countKey,
+                fields);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return search.get();
+        }
+
+        String searchKey = CountEstimator.key("name", caseless(name), "gender", caseless(gender),
+                "grade", caseless(grade), "academicYear", academicYear, "schoolId", schoolId,
+                "schoolName", caseless(schoolName), "page", pageable, "total", total, "fields", fields);
+        return singleFlight.execute("learners", searchKey, search);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<LearnerDTO> scrollLearners(String name, String gender, String grade,
+                                                          String academicYear, Long schoolId, String schoolName,
+                                                          String after, int size, String sortBy, String sortDir,
+                                                          FieldSet fields) {
+        KeysetCursor.pageSize(size);
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Specification<Learner> spec = searchSpecification(name, gender, grade, academicYear, schoolId, schoolName);
+        if (after != null) {
+            spec = spec.and(KeysetCursor.decode(after, sortBy, direction).seek());
+        }
+
+        Sort sort = KeysetCursor.sort(sortBy, direction);
+        List<LearnerDTO> rows = learnerRepository.findDTOs(spec, sort, size + 1, fields);
+
+        boolean hasNext = rows.size() > size;
+        List<LearnerDTO> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            LearnerDTO last = content.get(content.size() - 1);
+            nextCursor = KeysetCursor.of(last, last.getId(), sortBy, direction).encode();
+        }
+
+        return new CursorPagedResponse<>(content, size, nextCursor, hasNext);
+    }
+
+    /**
+     * The learner search filters, with the name and school name substring matches resolved through the
+     * search index when it can answer them.
+     */
+    public Specification<Learner> searchSpecification(String name, String gender, String grade,
+                                                      String academicYear, Long schoolId, String schoolName) {
+        return new SpecificationBuilder<Learner>()
+                .with(nameCriteria(name))
+                .with("gender", SearchOperation.EQUAL_IGNORE_CASE, gender)
+                .with("grade", SearchOperation.EQUAL_IGNORE_CASE, grade)
+                .with("academicYear", SearchOperation.EQUAL, academicYear)
+                .with("school.id", SearchOperation.EQUAL, schoolId)
+                .with(schoolNameCriteria(schoolName))
+                .build();
     }
 
     // Utility methods
+    private SearchCriteria nameCriteria(String name) {
+        return searchIndexService.findLearnerIdsByName(name)
+                .map(ids -> new SearchCriteria("id", SearchOperation.IN.getSymbol(), ids))
+                .orElseGet(() -> new SearchCriteria("name", SearchOperation.LIKE.getSymbol(), name));
+    }
+
+    private SearchCriteria schoolNameCriteria(String schoolName) {
+        return searchIndexService.findSchoolIdsByName(schoolName)
+                .map(ids -> new SearchCriteria("school.id", SearchOperation.IN.getSymbol(), ids))
+                .orElseGet(() -> new SearchCriteria("school.name", SearchOperation.LIKE.getSymbol(), schoolName));
+    }
+
     private Learner convertToEntity(LearnerDTO dto, School school) {
         Learner learner = new Learner();
         learner.setName(dto.getName());
@@ -161,7 +308,8 @@ public class LearnerService {
         return learner;
     }
 
-    private LearnerDTO convertToDTO(Learner learner) {
+    // Package-private so the JMH benchmarks in src/jmh can measure the mapping on its own
+    LearnerDTO convertToDTO(Learner learner) {
         LearnerDTO dto = new LearnerDTO();
         dto.setId(learner.getId());
         dto.setName(learner.getName());
@@ -169,27 +317,45 @@ public class LearnerService {
         dto.setGrade(learner.getGrade());
         dto.setAcademicYear(learner.getAcademicYear());
         dto.setSchoolId(learner.getSchool().getId());
-        dto.setSchoolName(learner.getSchool().getName());
+        // School name comes from the cache so the lazy school proxy is never initialized
+        dto.setSchoolName(schoolCache.get(learner.getSchool().getId()).map(SchoolSnapshot::name).orElse(null));
         dto.setCreatedAt(learner.getCreatedAt());
         dto.setUpdatedAt(learner.getUpdatedAt());
         return dto;
     }
 
-    private PagedResponse<LearnerDTO> convertToPagedResponse(Page<Learner> learnerPage) {
-        List<LearnerDTO> learners = learnerPage.getContent().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
-
-        return new PagedResponse<>(
-                learners,
-                learnerPage.getNumber(),
-                learnerPage.getSize(),
-                learnerPage.getTotalElements(),
-                learnerPage.getTotalPages(),
-                learnerPage.isFirst(),
-                learnerPage.isLast(),
-                learnerPage.hasNext(),
-                learnerPage.hasPrevious()
-        );
-    }
-}
\ No newline at end of file
+    private static String caseless(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private List<LearnerDTO> findLearners(List<Long> ids, FieldSet fields) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, LearnerDTO> learners = byId(learnerRepository.findDTOs(
+                (root, query, cb) -> root.get("id").in(ids), Sort.unsorted(), ids.size(), fields.with("id")));
+        return ids.stream().map(learners::get).filter(Objects::nonNull).toList();
+    }
+
+    private static Map<Long, LearnerDTO> byId(List<LearnerDTO> learners) {
+        return learners.stream().collect(Collectors.toMap(LearnerDTO::getId, Function.identity()));
+    }
+
+    // EXACT pages run the COUNT query; NONE and ESTIMATE fetch a Slice (size + 1 rows, no COUNT).
+    // Both project rows straight into LearnerDTO, so no Learner or School entity is loaded, and only the
+    // requested fields are selected.
+    private PagedResponse<LearnerDTO> findPage(Specification<Learner> spec, Pageable pageable,
+                                               TotalMode total, String countKey, FieldSet fields) {
+        if (total == TotalMode.EXACT) {
+            Page<LearnerDTO> learnerPage = learnerRepository.findDTOs(spec, pageable, fields);
+            return PagedResponse.of(learnerPage, learnerPage.getContent());
+        }
+
+        Slice<LearnerDTO> learnerSlice = learnerRepository.findDTOSlice(spec, pageable, fields);
+        if (total == TotalMode.NONE) {
+            return PagedResponse.of(learnerSlice, learnerSlice.getContent());
+        }
+        long estimatedTotal = countEstimator.estimate("learners?" + countKey, () -> learnerRepository.count(spec));
+        return PagedResponse.of(learnerSlice, learnerSlice.getContent(), estimatedTotal);
+    }
+}
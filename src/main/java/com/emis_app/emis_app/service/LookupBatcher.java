@@ -0,0 +1,205 @@
+package com.emis_app.emis_app.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Primary-key lookups resolved in batches. Multi-get requests are bounded to {@code max-ids} distinct ids,
+ * and concurrent single-id lookups of the same type are coalesced. A lookup that finds no other lookup of
+ * its type pending runs straight away, so an idle service adds no latency; one that arrives while a query
+ * is running opens or joins a batch whose first caller waits out the coalescing window, then loads every
+ * id that arrived meanwhile with one query and hands each waiting caller its row. A batch that reaches
+ * {@code max-ids} is dispatched straight away. Batch sizes are
+ * published as emis.lookup.batch.size tagged by type, so its mean is the number of lookups per query.
+ */
+@Component
+public class LookupBatcher {
+
+    private final TransactionTemplate readOnly;
+    private final MeterRegistry meterRegistry;
+    private final int maxIds;
+    private final Duration window;
+    private final Map<String, Lane> lanes = new ConcurrentHashMap<>();
+
+    public LookupBatcher(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry,
+                         @Value("${emis.lookup.max-ids:100}") int maxIds,
+                         @Value("${emis.lookup.coalescing-window:PT0.002S}") Duration window) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+        this.maxIds = maxIds;
+        this.window = window;
+    }
+
+    /**
+     * Drops duplicates and nulls, keeping the requested order, and rejects requests over the limit.
+     */
+    public List<Long> distinctIds(Collection<Long> ids) {
+        LinkedHashSet<Long> distinct = new LinkedHashSet<>(ids);
+        distinct.remove(null);
+        if (distinct.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids can be requested at once");
+        }
+        return List.copyOf(distinct);
+    }
+
+    /**
+     * Resolves one id through the batch currently collecting for {@code type}. The loader receives the
+     * distinct ids of the batch and runs in its own read-only transaction, so callers must not be inside
+     * a transaction whose writes they expect to see. A zero window turns coalescing off.
+     */
+    @SuppressWarnings("unchecked")
+    public <V> Optional<V> coalesce(String type, Long id, Function<List<Long>, Map<Long, V>> loader) {
+        Lane lane = lanes.computeIfAbsent(type, Lane::new);
+        if (window.isZero()) {
+            lane.batchSizes.record(1);
+            return Optional.ofNullable(readOnly.execute(status -> loader.apply(List.of(id))).get(id));
+        }
+        return Optional.ofNullable((V) lane.get(id, loader));
+    }
+
+    /**
+     * Runs a lookup that is not coalesced in a read-only transaction, joining the caller's if there is one,
+     * so it is routed like the batched lookups instead of running untransacted on the primary.
+     */
+    public <T> T readOnly(Supplier<T> lookup) {
+        return readOnly.execute(status -> lookup.get());
+    }
+
+    private final class Lane {
+
+        private final DistributionSummary batchSizes;
+        // Batch still accepting ids, and the number of queries of this lane running; guarded by this
+        private Batch current;
+        private int running;
+
+        Lane(String type) {
+            this.batchSizes = DistributionSummary.builder("emis.lookup.batch.size")
+                    .description("Single-id lookups answered by one batched query")
+                    .tag("type", type)
+                    .register(meterRegistry);
+        }
+
+        Object get(Long id, Function<List<Long>, ? extends Map<Long, ?>> loader) {
+            Batch batch;
+            CompletableFuture<Object> result;
+            boolean alone;
+            boolean leader;
+            boolean full;
+            synchronized (this) {
+                alone = current == null && running == 0;
+                if (alone) {
+                    running++;
+                }
+            }
+            if (alone) {
+                return loadAlone(id, loader);
+            }
+            synchronized (this) {
+                leader = current == null;
+                if (leader) {
+                    current = new Batch(Thread.currentThread());
+                }
+                batch = current;
+                result = batch.results.computeIfAbsent(id, key -> new CompletableFuture<>());
+                full = batch.results.size() >= maxIds;
+                if (full) {
+                    current = null;
+                }
+            }
+
+            if (leader && !full) {
+                // Woken early when a caller fills the batch and dispatches it
+                long deadline = System.nanoTime() + window.toNanos();
+                long remaining;
+                while (!batch.dispatched.get() && (remaining = deadline - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(remaining);
+                }
+                synchronized (this) {
+                    if (current == batch) {
+                        current = null;
+                    }
+                }
+            }
+            // The leader and the caller that filled the batch race to dispatch it once it is closed
+            if ((leader || full) && batch.dispatched.compareAndSet(false, true)) {
+                LockSupport.unpark(batch.leader);
+                dispatch(batch, loader);
+            }
+            return join(result);
+        }
+
+        // Nothing else pending: query for this id alone instead of waiting for company
+        private Object loadAlone(Long id, Function<List<Long>, ? extends Map<Long, ?>> loader) {
+            batchSizes.record(1);
+            try {
+                return readOnly.execute(status -> loader.apply(List.of(id))).get(id);
+            } finally {
+                finished();
+            }
+        }
+
+        private void dispatch(Batch batch, Function<List<Long>, ? extends Map<Long, ?>> loader) {
+            List<Long> ids = List.copyOf(batch.results.keySet());
+            batchSizes.record(ids.size());
+            synchronized (this) {
+                running++;
+            }
+            try {
+                Map<Long, ?> rows = readOnly.execute(status -> loader.apply(ids));
+                batch.results.forEach((id, result) -> result.complete(rows.get(id)));
+            } catch (Throwable e) {
+                batch.results.values().forEach(result -> result.completeExceptionally(e));
+            } finally {
+                finished();
+            }
+        }
+
+        private synchronized void finished() {
+            running--;
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> result) {
+        try {
+            return result.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Batch {
+        private final Thread leader;
+        private final Map<Long, CompletableFuture<Object>> results = new HashMap<>();
+        private final AtomicBoolean dispatched = new AtomicBoolean();
+
+        Batch(Thread leader) {
+            this.leader = leader;
+        }
+    }
+}
@@ -1,28 +1,62 @@
 package com.emis_app.emis_app.service;
 
 
+import com.emis_app.emis_app.cache.ResourceVersions;
+import com.emis_app.emis_app.cache.SchoolCache;
+import com.emis_app.emis_app.cache.SchoolSnapshot;
+import com.emis_app.emis_app.dto.CursorPagedResponse;
+import com.emis_app.emis_app.dto.FieldSet;
 import com.emis_app.emis_app.dto.PagedResponse;
 import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.dto.SearchCriteria;
+import com.emis_app.emis_app.dto.TotalMode;
 import com.emis_app.emis_app.entity.School;
+import com.emis_app.emis_app.outbox.OutboxService;
 import com.emis_app.emis_app.repository.SchoolRepository;
+import com.emis_app.emis_app.search.SearchIndexService;
+import com.emis_app.emis_app.specification.KeysetCursor;
+import com.emis_app.emis_app.specification.SchoolSpecifications;
+import com.emis_app.emis_app.specification.SearchCriteriaSpecification;
+import com.emis_app.emis_app.specification.SearchOperation;
+import com.emis_app.emis_app.specification.SpecificationBuilder;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("emis.service")
 @RequiredArgsConstructor
 @Transactional
 public class SchoolService {
 
     private final SchoolRepository schoolRepository;
+    private final CountEstimator countEstimator;
+    private final SearchIndexService searchIndexService;
+    private final SchoolCache schoolCache;
+    private final OutboxService outboxService;
+    private final LookupBatcher lookupBatcher;
+    private final SingleFlight singleFlight;
 
     // CRUD Operations
     public SchoolDTO createSchool(SchoolDTO schoolDTO) {
@@ -32,13 +66,55 @@ public class SchoolService {
 
         School school = convertToEntity(schoolDTO);
         School savedSchool = schoolRepository.save(school);
-        return convertToDTO(savedSchool);
+        SchoolDTO created = convertToDTO(savedSchool);
+        outboxService.created(OutboxService.SCHOOL, created.getId(), created);
+        return created;
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public Optional<SchoolDTO> getSchoolById(Long id) {
-        return schoolRepository.findById(id)
-                .map(this::convertToDTO);
+        return getSchoolById(id, FieldSet.ALL);
+    }
+
+    /**
+     * The school itself comes from the cache. Full representations are coalesced with concurrent lookups
+     * of other schools, so their learner counts come from one grouped query. Otherwise learners are
+     * counted, in a read-only transaction, only when learners_count is asked for. No transaction is
+     * opened before that, so a caller waiting on a batch does not hold a connection.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
+    public Optional<SchoolDTO> getSchoolById(Long id, FieldSet fields) {
+        if (fields.isAll() && !TransactionSynchronizationManager.isActualTransactionActive()) {
+            return lookupBatcher.coalesce("school", id, ids -> findSchools(ids, FieldSet.ALL).stream()
+                    .collect(Collectors.toMap(SchoolDTO::getId, Function.identity())));
+        }
+        return schoolCache.get(id)
+                .map(school -> convertToDTO(school, fields.includes("learners_count")
+                        ? lookupBatcher.readOnly(() -> schoolRepository.countLearnersBySchoolId(id))
+                        : null));
+    }
+
+    // Multi-get: cached snapshots plus one IN query for the misses, results in the requested order
+    @Transactional(readOnly = true)
+    public List<SchoolDTO> getSchoolsByIds(Collection<Long> ids, FieldSet fields) {
+        List<Long> distinct = lookupBatcher.distinctIds(ids);
+        // The list ETag comes from the database, so the body must not come from snapshots older than it
+        schoolCache.revalidate(distinct);
+        return findSchools(distinct, fields);
+    }
+
+    /**
+     * Version of the representation returned by {@link #getSchoolById}, without loading the school or
+     * counting its learners. Learner writes go through the enrolled_count counter, so it stands in
+     * for learners_count. A cached snapshot of an older row is dropped, so the body that follows is
+     * built from the row this version describes even when another instance made the change.
+     */
+    @Transactional(readOnly = true)
+    public Optional<String> getSchoolVersion(Long id) {
+        Optional<Object[]> row = schoolRepository.findVersionById(id).stream().findFirst();
+        // The body is built from the cache next, so it must hold this very row for the ETag to describe it
+        schoolCache.revalidate(id, row.map(columns -> (LocalDateTime) columns[0]).orElse(null));
+        return row.map(columns -> ResourceVersions.of(id, columns[0], columns[1]));
     }
 
     public SchoolDTO updateSchool(Long id, SchoolDTO schoolDTO) {
@@ -56,8 +132,12 @@ public class SchoolService {
         existingSchool.setLocation(schoolDTO.getLocation());
         existingSchool.setEnrollmentCapacity(schoolDTO.getEnrollmentCapacity());
 
-        School updatedSchool = schoolRepository.save(existingSchool);
-        return convertToDTO(updatedSchool);
+        // Flushed before the event is recorded so concurrent writers of this school are ordered by row lock
+        School updatedSchool = schoolRepository.saveAndFlush(existingSchool);
+        schoolCache.evict(id);
+        SchoolDTO updated = convertToDTO(updatedSchool);
+        outboxService.updated(OutboxService.SCHOOL, id, updated);
+        return updated;
     }
 
     public void deleteSchool(Long id) {
@@ -65,81 +145,152 @@ public class SchoolService {
             throw new RuntimeException("School not found with id: " + id);
         }
         schoolRepository.deleteById(id);
+        schoolRepository.flush();
+        schoolCache.evict(id);
+        outboxService.deleted(OutboxService.SCHOOL, id);
     }
 
     // Search Operations
     @Transactional(readOnly = true)
-    public PagedResponse<SchoolDTO> getAllSchools(int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<SchoolDTO> getAllSchools(int page, int size, String sortBy, String sortDir, TotalMode total,
+                                                  FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<School> schoolPage = schoolRepository.findAll(pageable);
-        return convertToPagedResponse(schoolPage);
+        return findPage(SchoolSpecifications.any(), pageable, total, "all", fields);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<SchoolDTO> searchSchoolsByName(String name, int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<SchoolDTO> searchSchoolsByName(String name, int page, int size, String sortBy, String sortDir,
+                                                        TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<School> schoolPage = schoolRepository.findByNameContainingIgnoreCase(name, pageable);
-        return convertToPagedResponse(schoolPage);
+        return findPage(new SearchCriteriaSpecification<>(nameCriteria(name)), pageable, total,
+                CountEstimator.key("name", name), fields);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<SchoolDTO> searchSchoolsByType(String schoolType, int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<SchoolDTO> searchSchoolsByType(String schoolType, int page, int size, String sortBy, String sortDir,
+                                                        TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<School> schoolPage = schoolRepository.findBySchoolTypeIgnoreCase(schoolType, pageable);
-        return convertToPagedResponse(schoolPage);
+        return findPage(SchoolSpecifications.hasSchoolType(schoolType), pageable, total,
+                CountEstimator.key("schoolType", schoolType), fields);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<SchoolDTO> searchSchoolsByLocation(String location, int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<SchoolDTO> searchSchoolsByLocation(String location, int page, int size, String sortBy, String sortDir,
+                                                            TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<School> schoolPage = schoolRepository.findByLocationContainingIgnoreCase(location, pageable);
-        return convertToPagedResponse(schoolPage);
+        return findPage(new SearchCriteriaSpecification<>(locationCriteria(location)), pageable, total,
+                CountEstimator.key("location", location), fields);
     }
 
     @Transactional(readOnly = true)
     public PagedResponse<SchoolDTO> searchSchoolsByCapacityRange(Integer minCapacity, Integer maxCapacity,
-                                                                 int page, int size, String sortBy, String sortDir) {
+                                                                 int page, int size, String sortBy, String sortDir,
+                                                                 TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<School> schoolPage = schoolRepository.findByEnrollmentCapacityBetween(minCapacity, maxCapacity, pageable);
-        return convertToPagedResponse(schoolPage);
+        Specification<School> spec = new SpecificationBuilder<School>()
+                .withRange("enrollmentCapacity", minCapacity, maxCapacity)
+                .build();
+        return findPage(spec, pageable, total, CountEstimator.key("minCapacity", minCapacity, "maxCapacity", maxCapacity),
+                fields);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Identical concurrent searches (same criteria, ignoring case where matching does, and same page) share
+     * one execution through {@link SingleFlight}. Runs without a transaction of its own so a caller waiting
+     * on another's query does not hold a connection.
+     */
+    @Transactional(readOnly = true, propagation = Propagation.SUPPORTS)
     public PagedResponse<SchoolDTO> advancedSearch(String name, String schoolType, String location,
                                                    Integer minCapacity, Integer maxCapacity,
-                                                   int page, int size, String sortBy, String sortDir) {
+                                                   int page, int size, String sortBy, String sortDir, TotalMode total,
+                                                   FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        System.out.println("DEBUG - name: " + name + ", type: " + (name != null ? name.getClass().getName() : "null"));
-        System.out.println("DEBUG - schoolType: " + schoolType + ", type: " + (schoolType != null ? schoolType.getClass().getName() : "null"));
-        System.out.println("DEBUG - location: " + location + ", type: " + (location != null ? location.getClass().getName() : "null"));
+        String countKey = CountEstimator.key("name", name, "schoolType", schoolType, "location", location,
+                "minCapacity", minCapacity, "maxCapacity", maxCapacity);
+        Supplier<PagedResponse<SchoolDTO>> search = () -> findPage(
+                searchSpecification(name, schoolType, location, minCapacity, maxCapacity), pageable, total, countKey,
+                fields);
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return search.get();
+        }
 
-        Page<School> schoolPage = schoolRepository.findBySearchCriteria(
-                name, schoolType, location, minCapacity, maxCapacity, pageable);
-        return convertToPagedResponse(schoolPage);
+        String searchKey = CountEstimator.key("name", caseless(name), "schoolType", caseless(schoolType),
+                "location", caseless(location), "minCapacity", minCapacity, "maxCapacity", maxCapacity,
+                "page", pageable, "total", total, "fields", fields);
+        return singleFlight.execute("schools", searchKey, search);
     }
 
     @Transactional(readOnly = true)
-    public PagedResponse<SchoolDTO> getSchoolsWithAvailableCapacity(int page, int size, String sortBy, String sortDir) {
+    public PagedResponse<SchoolDTO> getSchoolsWithAvailableCapacity(int page, int size, String sortBy, String sortDir,
+                                                                    TotalMode total, FieldSet fields) {
         Sort sort = sortDir.equalsIgnoreCase("desc") ? Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         Pageable pageable = PageRequest.of(page, size, sort);
 
-        Page<School> schoolPage = schoolRepository.findSchoolsWithAvailableCapacity(pageable);
-        return convertToPagedResponse(schoolPage);
+        return findPage(SchoolSpecifications.hasAvailableCapacity(), pageable, total, "availableCapacity", fields);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPagedResponse<SchoolDTO> scrollSchools(String name, String schoolType, String location,
+                                                        Integer minCapacity, Integer maxCapacity,
+                                                        String after, int size, String sortBy, String sortDir,
+                                                        FieldSet fields) {
+        KeysetCursor.pageSize(size);
+        Sort.Direction direction = sortDir.equalsIgnoreCase("desc") ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Specification<School> spec = searchSpecification(name, schoolType, location, minCapacity, maxCapacity);
+        if (after != null) {
+            spec = spec.and(KeysetCursor.decode(after, sortBy, direction).seek());
+        }
+
+        Sort sort = KeysetCursor.sort(sortBy, direction);
+        List<SchoolDTO> rows = schoolRepository.findDTOs(spec, sort, size + 1, fields);
+
+        boolean hasNext = rows.size() > size;
+        List<SchoolDTO> schools = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            SchoolDTO last = schools.get(schools.size() - 1);
+            nextCursor = KeysetCursor.of(last, last.getId(), sortBy, direction).encode();
+        }
+
+        return new CursorPagedResponse<>(withLearnerCounts(schools, fields), size, nextCursor, hasNext);
     }
 
     // Utility methods
+    // Name and location are resolved through the search index when possible
+    private Specification<School> searchSpecification(String name, String schoolType, String location,
+                                                      Integer minCapacity, Integer maxCapacity) {
+        return new SpecificationBuilder<School>()
+                .with(nameCriteria(name))
+                .with("schoolType", SearchOperation.EQUAL_IGNORE_CASE, schoolType)
+                .with(locationCriteria(location))
+                .withRange("enrollmentCapacity", minCapacity, maxCapacity)
+                .build();
+    }
+
+    private SearchCriteria nameCriteria(String name) {
+        return searchIndexService.findSchoolIdsByName(name)
+                .map(ids -> new SearchCriteria("id", SearchOperation.IN.getSymbol(), ids))
+                .orElseGet(() -> new SearchCriteria("name", SearchOperation.LIKE.getSymbol(), name));
+    }
+
+    private SearchCriteria locationCriteria(String location) {
+        return searchIndexService.findSchoolIdsByLocation(location)
+                .map(ids -> new SearchCriteria("id", SearchOperation.IN.getSymbol(), ids))
+                .orElseGet(() -> new SearchCriteria("location", SearchOperation.LIKE.getSymbol(), location));
+    }
+
     private School convertToEntity(SchoolDTO dto) {
         School school = new School();
         school.setName(dto.getName());
@@ -150,34 +301,81 @@ public class SchoolService {
     }
 
     private SchoolDTO convertToDTO(School school) {
+        return convertToDTO(school, schoolRepository.countLearnersBySchoolId(school.getId()));
+    }
+
+    // Package-private so the JMH benchmarks in src/jmh can measure the mapping on its own
+    SchoolDTO convertToDTO(School school, Long learnersCount) {
         SchoolDTO dto = new SchoolDTO();
         dto.setId(school.getId());
         dto.setName(school.getName());
         dto.setSchoolType(school.getSchoolType());
         dto.setLocation(school.getLocation());
         dto.setEnrollmentCapacity(school.getEnrollmentCapacity());
-        dto.setLearnersCount(schoolRepository.countLearnersBySchoolId(school.getId()));
+        dto.setLearnersCount(learnersCount);
         dto.setCreatedAt(school.getCreatedAt());
         dto.setUpdatedAt(school.getUpdatedAt());
         return dto;
     }
 
-    private PagedResponse<SchoolDTO> convertToPagedResponse(Page<School> schoolPage) {
-        List<SchoolDTO> schools = schoolPage.getContent().stream()
-                .map(this::convertToDTO)
+    private SchoolDTO convertToDTO(SchoolSnapshot school, Long learnersCount) {
+        SchoolDTO dto = new SchoolDTO();
+        dto.setId(school.id());
+        dto.setName(school.name());
+        dto.setSchoolType(school.schoolType());
+        dto.setLocation(school.location());
+        dto.setEnrollmentCapacity(school.enrollmentCapacity());
+        dto.setLearnersCount(learnersCount);
+        dto.setCreatedAt(school.createdAt());
+        dto.setUpdatedAt(school.updatedAt());
+        return dto;
+    }
+
+    private static String caseless(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    private List<SchoolDTO> findSchools(List<Long> ids, FieldSet fields) {
+        Map<Long, SchoolSnapshot> snapshots = schoolCache.getAll(ids);
+        List<SchoolDTO> schools = ids.stream()
+                .map(snapshots::get)
+                .filter(Objects::nonNull)
+                .map(school -> convertToDTO(school, null))
                 .collect(Collectors.toList());
+        return withLearnerCounts(schools, fields);
+    }
+
+    // Resolves learner counts for a whole page with one grouped query instead of one COUNT per school,
+    // and skips the query altogether when the fieldset leaves learners_count out
+    private List<SchoolDTO> withLearnerCounts(List<SchoolDTO> schools, FieldSet fields) {
+        if (schools.isEmpty() || !fields.includes("learners_count")) {
+            return schools;
+        }
+        List<Long> schoolIds = schools.stream().map(SchoolDTO::getId).collect(Collectors.toList());
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : schoolRepository.countLearnersBySchoolIds(schoolIds)) {
+            counts.put((Long) row[0], (Long) row[1]);
+        }
+        schools.forEach(school -> school.setLearnersCount(counts.getOrDefault(school.getId(), 0L)));
+        return schools;
+    }
 
-        return new PagedResponse<>(
-                schools,
-                schoolPage.getNumber(),
-                schoolPage.getSize(),
-                schoolPage.getTotalElements(),
-                schoolPage.getTotalPages(),
-                schoolPage.isFirst(),
-                schoolPage.isLast(),
-                schoolPage.hasNext(),
-                schoolPage.hasPrevious()
-        );
+    // EXACT pages run the COUNT query; NONE and ESTIMATE fetch a Slice (size + 1 rows, no COUNT).
+    // Rows are projected straight into SchoolDTO with only the requested columns selected.
+    private PagedResponse<SchoolDTO> findPage(Specification<School> spec, Pageable pageable,
+                                              TotalMode total, String countKey, FieldSet fields) {
+        if (total == TotalMode.EXACT) {
+            Page<SchoolDTO> schoolPage = schoolRepository.findDTOs(spec, pageable, fields);
+            return PagedResponse.of(schoolPage, withLearnerCounts(schoolPage.getContent(), fields));
+        }
+
+        Slice<SchoolDTO> schoolSlice = schoolRepository.findDTOSlice(spec, pageable, fields);
+        List<SchoolDTO> schools = withLearnerCounts(schoolSlice.getContent(), fields);
+        if (total == TotalMode.NONE) {
+            return PagedResponse.of(schoolSlice, schools);
+        }
+        long estimatedTotal = countEstimator.estimate("schools?" + countKey, () -> schoolRepository.count(spec));
+        return PagedResponse.of(schoolSlice, schools, estimatedTotal);
     }
 }
 
@@ -0,0 +1,106 @@
+package com.emis_app.emis_app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Deduplicates identical concurrent read queries: the first caller for a key runs the query in its own
+ * read-only transaction, and callers arriving with the same key while it is in flight wait for and share
+ * its result (or its exception) instead of running it again. Nothing is kept once the query returns.
+ * emis.search.singleflight.calls counts executed and shared calls per type, and
+ * emis.search.singleflight.ratio is the share of calls answered by another caller's query.
+ */
+@Component
+public class SingleFlight {
+
+    private final TransactionTemplate readOnly;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final Map<String, Meters> meters = new ConcurrentHashMap<>();
+
+    public SingleFlight(PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Runs {@code query}, or joins the identical one already running. {@code key} must capture
+     * everything the result depends on. The shared result is handed to every caller, so it must not be
+     * modified afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String type, String key, Supplier<T> query) {
+        Meters typeMeters = meters.computeIfAbsent(type, Meters::new);
+        String flightKey = type + "?" + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(flightKey, flight);
+        if (running != null) {
+            typeMeters.shared.increment();
+            return (T) join(running);
+        }
+
+        typeMeters.executed.increment();
+        try {
+            T result = readOnly.execute(status -> query.get());
+            flight.complete(result);
+            return result;
+        } catch (Throwable e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private static Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private final class Meters {
+
+        private final Counter executed;
+        private final Counter shared;
+
+        Meters(String type) {
+            this.executed = calls(type, "executed");
+            this.shared = calls(type, "shared");
+            Gauge.builder("emis.search.singleflight.ratio", this, Meters::ratio)
+                    .description("Share of identical concurrent queries answered by another caller's execution")
+                    .tag("type", type)
+                    .register(meterRegistry);
+        }
+
+        private Counter calls(String type, String result) {
+            return Counter.builder("emis.search.singleflight.calls")
+                    .tag("type", type)
+                    .tag("result", result)
+                    .register(meterRegistry);
+        }
+
+        private double ratio() {
+            double total = executed.count() + shared.count();
+            return total == 0 ? 0 : shared.count() / total;
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.repository.LearnerRepository;
+import com.emis_app.emis_app.repository.SchoolRepository;
+import com.emis_app.emis_app.statistics.StatisticsCube;
+import com.emis_app.emis_app.statistics.StatisticsCube.Cell;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Serves learner and school aggregates from an in-memory cube instead of GROUP BY queries. The cube
+ * is loaded once at startup and then adjusted by {@link com.emis_app.emis_app.statistics.StatisticsEventListener}
+ * as writes commit. It is rebuilt on a schedule to pick up writes made outside the application. A
+ * rebuild reads schools and counts in one repeatable-read transaction, and the deltas that arrive while
+ * it reads are buffered and replayed on the new cube before it is published. A delta whose transaction
+ * committed just before the read but was delivered just after is counted twice until the next rebuild.
+ */
+@Slf4j
+@Service
+@Timed("emis.service")
+public class StatisticsService {
+
+    private record SchoolInfo(String name, String schoolType) {
+    }
+
+    private record Snapshot(Map<Long, SchoolInfo> schools, StatisticsCube cube) {
+    }
+
+    private final LearnerRepository learnerRepository;
+    private final SchoolRepository schoolRepository;
+    private final TransactionTemplate snapshotRead;
+
+    private volatile StatisticsCube cube = new StatisticsCube();
+    private volatile Map<Long, SchoolInfo> schools = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile boolean stale;
+    // Not synchronized: the rebuild blocks on JDBC, which would pin a virtual thread to its carrier
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+    // Deltas delivered while a load is reading, replayed on the loaded cube before it is published; null
+    // when no load is running. Guarded by deltaLock, which is never held across I/O
+    private final Object deltaLock = new Object();
+    private List<BiConsumer<StatisticsCube, Map<Long, SchoolInfo>>> pending;
+
+    public StatisticsService(LearnerRepository learnerRepository, SchoolRepository schoolRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.learnerRepository = learnerRepository;
+        this.schoolRepository = schoolRepository;
+        this.snapshotRead = new TransactionTemplate(transactionManager);
+        this.snapshotRead.setReadOnly(true);
+        this.snapshotRead.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${emis.statistics.rebuild-interval:PT15M}",
+            fixedDelayString = "${emis.statistics.rebuild-interval:PT15M}")
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            load();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void load() {
+        long started = System.currentTimeMillis();
+        // Cleared before reading, so a change marked stale during the read triggers another load
+        stale = false;
+        synchronized (deltaLock) {
+            pending = new ArrayList<>();
+        }
+        try {
+            Snapshot snapshot = snapshotRead.execute(status -> read());
+            synchronized (deltaLock) {
+                pending.forEach(delta -> delta.accept(snapshot.cube(), snapshot.schools()));
+                schools = snapshot.schools();
+                cube = snapshot.cube();
+                ready = true;
+            }
+            log.info("Statistics cube loaded with {} cells for {} schools in {} ms",
+                    snapshot.cube().cellCount(), snapshot.schools().size(), System.currentTimeMillis() - started);
+        } finally {
+            synchronized (deltaLock) {
+                pending = null;
+            }
+        }
+    }
+
+    private Snapshot read() {
+        Map<Long, SchoolInfo> loadedSchools = new ConcurrentHashMap<>();
+        for (Object[] row : schoolRepository.findIdsNamesAndTypes()) {
+            loadedSchools.put((Long) row[0], new SchoolInfo((String) row[1], (String) row[2]));
+        }
+        StatisticsCube loadedCube = new StatisticsCube();
+        for (Object[] row : learnerRepository.countLearnersBySchoolGenderGradeAndAcademicYear()) {
+            loadedCube.add(new Cell((Long) row[0], (String) row[1], (String) row[2], (String) row[3]), (Long) row[4]);
+        }
+        return new Snapshot(loadedSchools, loadedCube);
+    }
+
+    // Roll-ups; each filter is optional
+    public Map<String, Long> countLearnersByGender(Long schoolId, String grade, String academicYear) {
+        return rollUp(Cell::gender, new TreeMap<>(), schoolId, null, grade, academicYear);
+    }
+
+    public Map<String, Long> countLearnersByGrade(Long schoolId, String gender, String academicYear) {
+        return rollUp(Cell::grade, new TreeMap<>(), schoolId, gender, null, academicYear);
+    }
+
+    public Map<String, Long> countLearnersByAcademicYear(Long schoolId, String gender, String grade) {
+        return rollUp(Cell::academicYear, new TreeMap<>(Comparator.reverseOrder()), schoolId, gender, grade, null);
+    }
+
+    public Map<String, Long> countLearnersBySchool(String gender, String grade, String academicYear) {
+        current();
+        Map<Long, SchoolInfo> schoolInfo = schools;
+        Map<String, Long> bySchool = rollUp(cell -> name(schoolInfo, cell.schoolId()), new TreeMap<>(),
+                null, gender, grade, academicYear);
+        return sortByCountDescending(bySchool);
+    }
+
+    public Map<String, Long> countSchoolsByType() {
+        current();
+        Map<String, Long> byType = new TreeMap<>();
+        schools.values().forEach(school -> byType.merge(school.schoolType(), 1L, Long::sum));
+        return byType;
+    }
+
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        long totalLearners = rollUp(cell -> "total", new TreeMap<>(), null, null, null, null).getOrDefault("total", 0L);
+        summary.put("total_learners", totalLearners);
+        summary.put("total_schools", (long) schools.size());
+        summary.put("learners_by_gender", countLearnersByGender(null, null, null));
+        summary.put("schools_by_type", countSchoolsByType());
+        return summary;
+    }
+
+    // Incremental updates, applied after commit
+    public void learnerAdded(Cell cell) {
+        apply((target, schoolInfo) -> target.add(cell, 1));
+    }
+
+    public void learnerRemoved(Cell cell) {
+        apply((target, schoolInfo) -> target.add(cell, -1));
+    }
+
+    public void learnerMoved(Cell previous, Cell current) {
+        if (!previous.equals(current)) {
+            apply((target, schoolInfo) -> {
+                target.add(previous, -1);
+                target.add(current, 1);
+            });
+        }
+    }
+
+    public void schoolSaved(Long id, String name, String schoolType) {
+        SchoolInfo school = new SchoolInfo(name, schoolType);
+        apply((target, schoolInfo) -> schoolInfo.put(id, school));
+    }
+
+    public void schoolRemoved(Long id) {
+        apply((target, schoolInfo) -> schoolInfo.remove(id));
+    }
+
+    // Called when a change could not be applied incrementally; the next read reloads the cube
+    public void markStale() {
+        stale = true;
+    }
+
+    // Applied to the published cube, and buffered for the one being loaded if a load is reading
+    private void apply(BiConsumer<StatisticsCube, Map<Long, SchoolInfo>> delta) {
+        synchronized (deltaLock) {
+            if (pending != null) {
+                pending.add(delta);
+            }
+            if (ready) {
+                delta.accept(cube, schools);
+            }
+        }
+    }
+
+    // Readers that found the cube stale queue on the lock; only the first reloads it
+    private StatisticsCube current() {
+        if (!ready || stale) {
+            rebuildLock.lock();
+            try {
+                if (!ready || stale) {
+                    load();
+                }
+            } finally {
+                rebuildLock.unlock();
+            }
+        }
+        return cube;
+    }
+
+    private Map<String, Long> rollUp(Function<Cell, String> dimension, Map<String, Long> target,
+                                     Long schoolId, String gender, String grade, String academicYear) {
+        current().forEach((cell, count) -> {
+            if (matches(schoolId, cell.schoolId()) && matchesIgnoreCase(gender, cell.gender())
+                    && matchesIgnoreCase(grade, cell.grade()) && matches(academicYear, cell.academicYear())) {
+                target.merge(dimension.apply(cell), count, Long::sum);
+            }
+        });
+        return target;
+    }
+
+    private static boolean matches(Object filter, Object value) {
+        return filter == null || filter.equals(value);
+    }
+
+    private static boolean matchesIgnoreCase(String filter, String value) {
+        return filter == null || filter.equalsIgnoreCase(value);
+    }
+
+    private static String name(Map<Long, SchoolInfo> schoolInfo, Long schoolId) {
+        SchoolInfo school = schoolInfo.get(schoolId);
+        return school != null ? school.name() : "School " + schoolId;
+    }
+
+    private static Map<String, Long> sortByCountDescending(Map<String, Long> counts) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed())
+                .forEach(entry -> sorted.put(entry.getKey(), entry.getValue()));
+        return sorted;
+    }
+}
@@ -0,0 +1,103 @@
+package com.emis_app.emis_app.specification;
+
+import jakarta.persistence.criteria.Path;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Opaque position in a keyset-paginated listing: the sort key of the last row returned plus its id
+ * as a tie-breaker. The next page is fetched with a WHERE clause on (sort key, id) instead of an
+ * OFFSET, so deep pages cost the same as the first one.
+ */
+public record KeysetCursor(String sortBy, Sort.Direction direction, Long id, String sortValue) {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final String SEPARATOR = "|";
+
+    public static KeysetCursor of(Object row, Long id, String sortBy, Sort.Direction direction) {
+        Object value = PropertyAccessorFactory.forBeanPropertyAccess(row).getPropertyValue(sortBy);
+        return new KeysetCursor(sortBy, direction, id, String.valueOf(value));
+    }
+
+    public static KeysetCursor decode(String token, String sortBy, Sort.Direction direction) {
+        String[] parts;
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            parts = decoded.split("\\" + SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+        if (!parts[0].equals(sortBy) || !parts[1].equals(direction.name())) {
+            throw new IllegalArgumentException("Cursor was issued for a different sort order");
+        }
+        try {
+            return new KeysetCursor(sortBy, direction, Long.valueOf(parts[2]), parts[3]);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+
+    /**
+     * Checks a requested page size; the query fetches one row more than the page to detect a next page,
+     * so the size has to be positive and small enough for that extra row.
+     */
+    public static int pageSize(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        return size;
+    }
+
+    public static Sort sort(String sortBy, Sort.Direction direction) {
+        return Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+    }
+
+    public String encode() {
+        String raw = sortBy + SEPARATOR + direction.name() + SEPARATOR + id + SEPARATOR + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public <T> Specification<T> seek() {
+        return (root, query, cb) -> {
+            Path<Comparable> key = root.get(sortBy);
+            Path<Long> idPath = root.get("id");
+            Comparable value = convert(sortValue, key.getJavaType());
+            if (direction.isAscending()) {
+                return cb.or(cb.greaterThan(key, value),
+                        cb.and(cb.equal(key, value), cb.greaterThan(idPath, id)));
+            }
+            return cb.or(cb.lessThan(key, value),
+                    cb.and(cb.equal(key, value), cb.lessThan(idPath, id)));
+        };
+    }
+
+    private static Comparable<?> convert(String value, Class<?> type) {
+        try {
+            if (type == String.class) {
+                return value;
+            }
+            if (type == Long.class) {
+                return Long.valueOf(value);
+            }
+            if (type == Integer.class) {
+                return Integer.valueOf(value);
+            }
+            if (type == LocalDateTime.class) {
+                return LocalDateTime.parse(value);
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor value: " + value);
+        }
+        throw new IllegalArgumentException("Cursor pagination is not supported for sort field of type " + type.getSimpleName());
+    }
+}
@@ -0,0 +1,33 @@
+package com.emis_app.emis_app.specification;
+
+import com.emis_app.emis_app.entity.Learner;
+import org.springframework.data.jpa.domain.Specification;
+
+import static com.emis_app.emis_app.specification.SearchOperation.EQUAL;
+import static com.emis_app.emis_app.specification.SearchOperation.EQUAL_IGNORE_CASE;
+
+public final class LearnerSpecifications {
+
+    private LearnerSpecifications() {
+    }
+
+    public static Specification<Learner> any() {
+        return Specification.allOf();
+    }
+
+    public static Specification<Learner> hasGender(String gender) {
+        return SearchCriteriaSpecification.of("gender", EQUAL_IGNORE_CASE, gender);
+    }
+
+    public static Specification<Learner> hasGrade(String grade) {
+        return SearchCriteriaSpecification.of("grade", EQUAL_IGNORE_CASE, grade);
+    }
+
+    public static Specification<Learner> hasAcademicYear(String academicYear) {
+        return SearchCriteriaSpecification.of("academicYear", EQUAL, academicYear);
+    }
+
+    public static Specification<Learner> hasSchoolId(Long schoolId) {
+        return SearchCriteriaSpecification.of("school.id", EQUAL, schoolId);
+    }
+}
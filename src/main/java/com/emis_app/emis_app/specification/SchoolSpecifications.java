@@ -0,0 +1,24 @@
+package com.emis_app.emis_app.specification;
+
+import com.emis_app.emis_app.entity.School;
+import org.springframework.data.jpa.domain.Specification;
+
+import static com.emis_app.emis_app.specification.SearchOperation.EQUAL_IGNORE_CASE;
+
+public final class SchoolSpecifications {
+
+    private SchoolSpecifications() {
+    }
+
+    public static Specification<School> any() {
+        return Specification.allOf();
+    }
+
+    public static Specification<School> hasSchoolType(String schoolType) {
+        return SearchCriteriaSpecification.of("schoolType", EQUAL_IGNORE_CASE, schoolType);
+    }
+
+    public static Specification<School> hasAvailableCapacity() {
+        return (root, query, cb) -> cb.lt(root.get("enrolledCount"), root.get("enrollmentCapacity"));
+    }
+}
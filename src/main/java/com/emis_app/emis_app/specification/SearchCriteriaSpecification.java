@@ -0,0 +1,88 @@
+package com.emis_app.emis_app.specification;
+
+import com.emis_app.emis_app.dto.SearchCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.From;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Collection;
+
+/**
+ * Turns a single {@link SearchCriteria} into a predicate. A criteria without a value contributes no
+ * predicate at all, so composed specifications only put the filters a request actually supplied
+ * into the SQL. Dotted keys such as {@code school.name} walk associations, reusing a join that is
+ * already on the query; {@code school.id} is read from the foreign key without joining.
+ */
+public class SearchCriteriaSpecification<T> implements Specification<T> {
+
+    private final SearchCriteria criteria;
+    private final SearchOperation operation;
+
+    public SearchCriteriaSpecification(SearchCriteria criteria) {
+        this.criteria = criteria;
+        this.operation = SearchOperation.fromSymbol(criteria.getOperation());
+    }
+
+    public static <T> SearchCriteriaSpecification<T> of(String key, SearchOperation operation, Object value) {
+        return new SearchCriteriaSpecification<>(new SearchCriteria(key, operation.getSymbol(), value));
+    }
+
+    public SearchCriteria getCriteria() {
+        return criteria;
+    }
+
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public Predicate toPredicate(Root<T> root, CriteriaQuery<?> query, CriteriaBuilder cb) {
+        Object value = criteria.getValue();
+        if (value == null) {
+            return null;
+        }
+
+        Path path = path(root, criteria.getKey());
+        return switch (operation) {
+            case EQUAL -> cb.equal(path, value);
+            case EQUAL_IGNORE_CASE -> cb.equal(cb.lower(path), value.toString().toLowerCase());
+            case LIKE -> cb.like(cb.lower(path), "%" + value.toString().toLowerCase() + "%");
+            case GREATER_THAN_OR_EQUAL -> cb.greaterThanOrEqualTo(path, (Comparable) value);
+            case LESS_THAN_OR_EQUAL -> cb.lessThanOrEqualTo(path, (Comparable) value);
+            case IN -> {
+                Collection<?> values = (Collection<?>) value;
+                yield values.isEmpty() ? cb.disjunction() : path.in(values);
+            }
+        };
+    }
+
+    private static Path<?> path(Root<?> root, String key) {
+        String[] segments = key.split("\\.");
+        From<?, ?> from = root;
+        for (int i = 0; i < segments.length - 1; i++) {
+            String segment = segments[i];
+            boolean foreignKey = i == segments.length - 2 && segments[i + 1].equals("id");
+            if (foreignKey && existingJoin(from, segment) == null) {
+                return from.get(segment).get("id");
+            }
+            from = join(from, segment);
+        }
+        return from.get(segments[segments.length - 1]);
+    }
+
+    private static Join<?, ?> join(From<?, ?> from, String attribute) {
+        Join<?, ?> existing = existingJoin(from, attribute);
+        return existing != null ? existing : from.join(attribute);
+    }
+
+    private static Join<?, ?> existingJoin(From<?, ?> from, String attribute) {
+        for (Join<?, ?> join : from.getJoins()) {
+            if (join.getAttribute().getName().equals(attribute)) {
+                return join;
+            }
+        }
+        return null;
+    }
+}
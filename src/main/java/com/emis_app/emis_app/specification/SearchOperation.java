@@ -0,0 +1,33 @@
+package com.emis_app.emis_app.specification;
+
+/**
+ * Operations a {@link com.emis_app.emis_app.dto.SearchCriteria} can carry, keyed by the short symbol
+ * stored in its {@code operation} field.
+ */
+public enum SearchOperation {
+    EQUAL("eq"),
+    EQUAL_IGNORE_CASE("ieq"),
+    LIKE("like"),
+    GREATER_THAN_OR_EQUAL("gte"),
+    LESS_THAN_OR_EQUAL("lte"),
+    IN("in");
+
+    private final String symbol;
+
+    SearchOperation(String symbol) {
+        this.symbol = symbol;
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public static SearchOperation fromSymbol(String symbol) {
+        for (SearchOperation operation : values()) {
+            if (operation.symbol.equalsIgnoreCase(symbol)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported search operation: " + symbol);
+    }
+}
@@ -0,0 +1,43 @@
+package com.emis_app.emis_app.specification;
+
+import com.emis_app.emis_app.dto.SearchCriteria;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Collects the filters of a search request and ANDs them into one specification. Criteria whose
+ * value is null are dropped, so no {@code :param IS NULL OR ...} guard ever reaches the database.
+ */
+public class SpecificationBuilder<T> {
+
+    private final List<SearchCriteria> criteria = new ArrayList<>();
+
+    public SpecificationBuilder<T> with(String key, SearchOperation operation, Object value) {
+        return with(new SearchCriteria(key, operation.getSymbol(), value));
+    }
+
+    public SpecificationBuilder<T> with(SearchCriteria searchCriteria) {
+        if (searchCriteria.getValue() != null) {
+            criteria.add(searchCriteria);
+        }
+        return this;
+    }
+
+    public SpecificationBuilder<T> withRange(String key, Comparable<?> min, Comparable<?> max) {
+        return with(key, SearchOperation.GREATER_THAN_OR_EQUAL, min)
+                .with(key, SearchOperation.LESS_THAN_OR_EQUAL, max);
+    }
+
+    public List<SearchCriteria> getCriteria() {
+        return Collections.unmodifiableList(criteria);
+    }
+
+    public Specification<T> build() {
+        return Specification.allOf(criteria.stream()
+                .<Specification<T>>map(SearchCriteriaSpecification::new)
+                .toList());
+    }
+}
@@ -0,0 +1,32 @@
+package com.emis_app.emis_app.statistics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Learner counts keyed by every combination of (school, gender, grade, academic year) that has at
+ * least one learner. Writes adjust a single cell in O(1); roll-ups along any dimension are a scan
+ * over the non-empty cells, which is bounded by the number of distinct combinations rather than
+ * the number of learners.
+ */
+public class StatisticsCube {
+
+    public record Cell(Long schoolId, String gender, String grade, String academicYear) {
+    }
+
+    private final Map<Cell, Long> counts = new ConcurrentHashMap<>();
+
+    public void add(Cell cell, long delta) {
+        // Empty cells are dropped so roll-ups never report zero buckets
+        counts.merge(cell, delta, (current, change) -> current + change == 0 ? null : current + change);
+    }
+
+    public void forEach(BiConsumer<Cell, Long> action) {
+        counts.forEach(action);
+    }
+
+    public int cellCount() {
+        return counts.size();
+    }
+}
@@ -0,0 +1,118 @@
+package com.emis_app.emis_app.statistics;
+
+import com.emis_app.emis_app.entity.Learner;
+import com.emis_app.emis_app.entity.School;
+import com.emis_app.emis_app.service.StatisticsService;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+/**
+ * Feeds committed learner and school writes into the statistics cube. A Hibernate post-commit
+ * listener is used rather than a JPA entity listener because moving a learner between cells needs
+ * the state it was loaded with, which only the Hibernate update event carries. Learners removed by
+ * the cascade from a deleted school arrive here as individual delete events.
+ */
+@Component
+public class StatisticsEventListener implements PostCommitInsertEventListener, PostCommitUpdateEventListener,
+        PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final StatisticsService statisticsService;
+
+    public StatisticsEventListener(EntityManagerFactory entityManagerFactory, StatisticsService statisticsService) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.statisticsService = statisticsService;
+    }
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        if (event.getEntity() instanceof Learner learner) {
+            statisticsService.learnerAdded(cell(learner));
+        } else if (event.getEntity() instanceof School school) {
+            statisticsService.schoolSaved(school.getId(), school.getName(), school.getSchoolType());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        if (event.getEntity() instanceof Learner learner) {
+            Object[] oldState = event.getOldState();
+            if (oldState == null) {
+                statisticsService.markStale();
+                return;
+            }
+            EntityPersister persister = event.getPersister();
+            School oldSchool = (School) property(persister, oldState, "school");
+            StatisticsCube.Cell previous = new StatisticsCube.Cell(oldSchool.getId(),
+                    (String) property(persister, oldState, "gender"),
+                    (String) property(persister, oldState, "grade"),
+                    (String) property(persister, oldState, "academicYear"));
+            statisticsService.learnerMoved(previous, cell(learner));
+        } else if (event.getEntity() instanceof School school) {
+            statisticsService.schoolSaved(school.getId(), school.getName(), school.getSchoolType());
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        if (event.getEntity() instanceof Learner learner) {
+            statisticsService.learnerRemoved(cell(learner));
+        } else if (event.getEntity() instanceof School school) {
+            statisticsService.schoolRemoved(school.getId());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        Class<?> type = persister.getMappedClass();
+        return type == Learner.class || type == School.class;
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+    }
+
+    private static StatisticsCube.Cell cell(Learner learner) {
+        return new StatisticsCube.Cell(learner.getSchool().getId(), learner.getGender(), learner.getGrade(),
+                learner.getAcademicYear());
+    }
+
+    private static Object property(EntityPersister persister, Object[] state, String name) {
+        String[] names = persister.getPropertyNames();
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return state[i];
+            }
+        }
+        throw new IllegalStateException("No property " + name + " on " + persister.getEntityName());
+    }
+}
@@ -0,0 +1,41 @@
+-- Brings a PostgreSQL database created by an earlier build up to the current entity mappings. Needed
+-- wherever Hibernate runs with ddl-auto: validate (the prod profile), which refuses to start against
+-- the old schema. Run it once with the application stopped:
+--   psql -U postgres -d emis_db -v ON_ERROR_STOP=1 -f src/main/resources/db/upgrade-existing-schema.sql
+-- Every statement can be rerun safely.
+
+BEGIN;
+
+-- School and learner ids: IDENTITY columns became pooled sequences (allocationSize = 50). Hibernate
+-- hands out the block (value - 49 .. value) for each value it draws, so the sequences restart 50 past
+-- the highest id already used.
+ALTER TABLE schools ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE learners ALTER COLUMN id DROP IDENTITY IF EXISTS;
+CREATE SEQUENCE IF NOT EXISTS schools_seq START WITH 1 INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS learners_seq START WITH 1 INCREMENT BY 50;
+SELECT setval('schools_seq', (SELECT COALESCE(max(id), 0) + 50 FROM schools), false);
+SELECT setval('learners_seq', (SELECT COALESCE(max(id), 0) + 50 FROM learners), false);
+
+-- Seat counter maintained by SchoolRepository.reserveSeats/releaseSeats, backfilled from the learners
+-- already enrolled
+ALTER TABLE schools ADD COLUMN IF NOT EXISTS enrolled_count integer NOT NULL DEFAULT 0;
+UPDATE schools s SET enrolled_count = (SELECT count(*) FROM learners l WHERE l.school_id = s.id);
+
+-- Transactional outbox written by OutboxService and drained by OutboxRelay
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH 1 INCREMENT BY 1;
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             bigint       NOT NULL PRIMARY KEY,
+    aggregate_type varchar(20)  NOT NULL,
+    aggregate_id   bigint       NOT NULL,
+    event_type     varchar(20)  NOT NULL,
+    payload        text,
+    created_at     timestamp(6) NOT NULL
+);
+
+-- List ETag counter (ResourceVersions). The application also creates it at startup; created here for
+-- database users without CREATE privilege. Starts from the clock in microseconds, never moving back.
+CREATE SEQUENCE IF NOT EXISTS resource_versions_seq;
+SELECT setval('resource_versions_seq', GREATEST((SELECT last_value FROM resource_versions_seq),
+        (extract(epoch FROM clock_timestamp()) * 1000000)::bigint));
+
+COMMIT;
@@ -0,0 +1,43 @@
+package com.emis_app.emis_app;
+
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.SchoolDTO;
+
+import java.util.UUID;
+
+/**
+ * Unsaved school and learner DTOs shared by the integration tests. School names carry a random suffix
+ * so tests can run against the shared context without colliding on the unique name.
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static SchoolDTO school(int capacity) {
+        SchoolDTO school = new SchoolDTO();
+        school.setName("Test School " + UUID.randomUUID());
+        school.setSchoolType("Public Primary");
+        school.setLocation("Kampala");
+        school.setEnrollmentCapacity(capacity);
+        return school;
+    }
+
+    public static LearnerDTO learner(Long schoolId) {
+        return learner("Test Learner", "Female", "P3", schoolId);
+    }
+
+    public static LearnerDTO learner(String name, Long schoolId) {
+        return learner(name, "Female", "P3", schoolId);
+    }
+
+    public static LearnerDTO learner(String name, String gender, String grade, Long schoolId) {
+        LearnerDTO learner = new LearnerDTO();
+        learner.setName(name);
+        learner.setGender(gender);
+        learner.setGrade(grade);
+        learner.setAcademicYear("2024-2025");
+        learner.setSchoolId(schoolId);
+        return learner;
+    }
+}
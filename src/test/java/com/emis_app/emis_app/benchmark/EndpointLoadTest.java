@@ -0,0 +1,179 @@
+package com.emis_app.emis_app.benchmark;
+
+import com.emis_app.emis_app.EmisAppApplication;
+import com.emis_app.emis_app.search.SearchIndexService;
+import com.emis_app.emis_app.service.StatisticsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.File;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Endpoint-level load test. Boots the application on the test profile (H2 in memory), seeds a
+ * large dataset with JDBC batches, then drives advanced learner search, available-capacity school
+ * search and learner CRUD with a configurable read/write mix. Per-endpoint throughput and
+ * p50/p95/p99 latencies are written as JSON so runs of different builds can be diffed. Fully
+ * offline; disabled unless {@code -Demis.loadtest=true}:
+ * <pre>mvn test -Dspring.profiles.active=test -Dtest=EndpointLoadTest -Demis.loadtest=true</pre>
+ * Tunables (system properties, prefix {@code emis.loadtest.}): schools, learners, concurrency,
+ * warmup, duration, write-ratio, report.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "emis.loadtest", matches = "true")
+class EndpointLoadTest {
+
+    private static final int SCHOOLS = Integer.getInteger("emis.loadtest.schools", 500);
+    private static final int LEARNERS = Integer.getInteger("emis.loadtest.learners", 100_000);
+    private static final int CONCURRENCY = Integer.getInteger("emis.loadtest.concurrency", 64);
+    private static final Duration WARMUP = Duration.parse(System.getProperty("emis.loadtest.warmup", "PT5S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("emis.loadtest.duration", "PT30S"));
+    private static final double WRITE_RATIO = Double.parseDouble(System.getProperty("emis.loadtest.write-ratio", "0.2"));
+    private static final String REPORT = System.getProperty("emis.loadtest.report", "target/loadtest-report.json");
+
+    private static final String[] GENDERS = {"Male", "Female"};
+    private static final String[] GRADES = {"P1", "P2", "P3", "P4", "P5", "P6", "P7", "S1", "S2", "S3", "S4", "S5", "S6"};
+    private static final String[] YEARS = {"2023-2024", "2024-2025"};
+
+    // First seeded ids; everything the load test touches is offset from these
+    private long schoolBase;
+    private long learnerBase;
+
+    @Test
+    void driveEndpoints() throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EmisAppApplication.class)
+                .profiles("test")
+                // Command-line arguments, so they win over application.yml and the test profile
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:loadtest",
+                        "--spring.jmx.enabled=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false")) {
+            seed(context);
+
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadDriver driver = new LoadDriver("http://localhost:" + port);
+            LoadDriver.Report report = driver.run(mix(driver), CONCURRENCY, WARMUP, DURATION);
+
+            Map<String, Object> json = new LinkedHashMap<>();
+            json.put("schools", SCHOOLS);
+            json.put("learners", LEARNERS);
+            json.put("write_ratio", WRITE_RATIO);
+            json.putAll(LoadDriver.toMap(report));
+            File file = new File(REPORT);
+            new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+            log.info("Load test report written to {}", file.getAbsolutePath());
+
+            assertThat(report.throughputPerSecond()).isPositive();
+        }
+    }
+
+    private List<LoadDriver.Endpoint> mix(LoadDriver driver) {
+        int reads = (int) Math.round((1 - WRITE_RATIO) * 100);
+        int writes = 100 - reads;
+        // Deletes walk down from the top of the seeded id range so each one removes a distinct learner
+        AtomicLong nextDelete = new AtomicLong(learnerBase + LEARNERS - 1);
+
+        List<LoadDriver.Endpoint> mix = new ArrayList<>();
+        mix.add(new LoadDriver.Endpoint("learners_advanced_search", reads * 4 / 10, () -> driver.get(
+                "/api/v1/learners/search/advanced?gender=" + pick(GENDERS) + "&grade=" + pick(GRADES) + "&size=20")));
+        mix.add(new LoadDriver.Endpoint("schools_available_capacity", reads * 3 / 10,
+                () -> driver.get("/api/v1/schools/search/available-capacity?size=20")));
+        mix.add(new LoadDriver.Endpoint("learner_get", reads - reads * 4 / 10 - reads * 3 / 10,
+                () -> driver.get("/api/v1/learners/" + randomLearnerId())));
+        if (writes > 0) {
+            mix.add(new LoadDriver.Endpoint("learner_create", Math.max(1, writes * 4 / 10),
+                    () -> driver.send("POST", "/api/v1/learners", learnerJson(randomSchoolId()))));
+            mix.add(new LoadDriver.Endpoint("learner_update", Math.max(1, writes * 4 / 10), () -> {
+                long id = randomLearnerId();
+                return driver.send("PUT", "/api/v1/learners/" + id, learnerJson(schoolOf(id)));
+            }));
+            mix.add(new LoadDriver.Endpoint("learner_delete", Math.max(1, writes - writes * 8 / 10),
+                    () -> driver.send("DELETE", "/api/v1/learners/" + nextDelete.getAndDecrement(), "")));
+        }
+        return mix;
+    }
+
+    private void seed(ConfigurableApplicationContext context) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        // Ids are taken above a freshly drawn sequence value, so they cannot collide with blocks
+        // Hibernate has already reserved (the startup seeder) or will reserve after the restart below
+        schoolBase = jdbc.queryForObject("SELECT NEXT VALUE FOR schools_seq", Long.class);
+        learnerBase = jdbc.queryForObject("SELECT NEXT VALUE FOR learners_seq", Long.class);
+
+        int capacity = (int) Math.ceil(LEARNERS * 2.0 / SCHOOLS);
+        int[] enrolled = new int[SCHOOLS];
+        for (long i = 0; i < LEARNERS; i++) {
+            enrolled[(int) (i % SCHOOLS)]++;
+        }
+        List<Object[]> schools = new ArrayList<>();
+        for (int i = 0; i < SCHOOLS; i++) {
+            schools.add(new Object[]{schoolBase + i, "Load School " + i, i % 2 == 0 ? "Public Primary" : "Private Secondary",
+                    "District " + (i % 40), capacity, enrolled[i], now, now});
+        }
+        jdbc.batchUpdate("INSERT INTO schools (id, name, school_type, location, enrollment_capacity, enrolled_count, "
+                + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", schools);
+
+        List<Object[]> batch = new ArrayList<>();
+        for (long i = 0; i < LEARNERS; i++) {
+            long id = learnerBase + i;
+            batch.add(new Object[]{id, "Load Learner " + i, GENDERS[(int) (i % 2)], GRADES[(int) (i % GRADES.length)],
+                    YEARS[(int) (i % YEARS.length)], schoolOf(id), now, now});
+            if (batch.size() == 5_000 || i == LEARNERS - 1) {
+                jdbc.batchUpdate("INSERT INTO learners (id, name, gender, grade, academic_year, school_id, "
+                        + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+
+        // Move the id sequences past the seeded rows so creates through the API do not collide
+        // (allocation size 50: the next block Hibernate takes ends at the restart value)
+        jdbc.execute("ALTER SEQUENCE schools_seq RESTART WITH " + (schoolBase + SCHOOLS + 50));
+        jdbc.execute("ALTER SEQUENCE learners_seq RESTART WITH " + (learnerBase + LEARNERS + 50));
+        context.getBean(SearchIndexService.class).rebuild();
+        context.getBean(StatisticsService.class).rebuild();
+    }
+
+    private long schoolOf(long learnerId) {
+        return schoolBase + (learnerId - learnerBase) % SCHOOLS;
+    }
+
+    private long randomLearnerId() {
+        // Stay below the range that deletes consume
+        return learnerBase + ThreadLocalRandom.current().nextLong(LEARNERS / 2);
+    }
+
+    private long randomSchoolId() {
+        return schoolBase + ThreadLocalRandom.current().nextLong(SCHOOLS);
+    }
+
+    private static String pick(String[] values) {
+        return values[ThreadLocalRandom.current().nextInt(values.length)];
+    }
+
+    private static String learnerJson(long schoolId) {
+        return "{\"name\":\"Load Writer " + ThreadLocalRandom.current().nextInt(1_000_000) + "\","
+                + "\"gender\":\"" + pick(GENDERS) + "\",\"grade\":\"" + pick(GRADES) + "\","
+                + "\"academic_year\":\"" + pick(YEARS) + "\",\"school_id\":" + schoolId + "}";
+    }
+}
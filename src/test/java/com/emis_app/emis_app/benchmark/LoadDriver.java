@@ -0,0 +1,173 @@
+package com.emis_app.emis_app.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Closed-loop HTTP load generator: a fixed number of clients, each on its own virtual thread,
+ * send requests back to back for a fixed duration. Every request is timed and bucketed by
+ * endpoint name so percentiles can be reported per endpoint.
+ */
+public class LoadDriver {
+
+    /** One weighted kind of request in the mix. */
+    public record Endpoint(String name, int weight, Supplier<HttpRequest> request) {
+    }
+
+    public record EndpointStats(String name, long requests, long errors, double throughputPerSecond,
+                                double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+    }
+
+    public record Report(int concurrency, double durationSeconds, double throughputPerSecond, List<EndpointStats> endpoints) {
+
+        public EndpointStats endpoint(String name) {
+            return endpoints.stream().filter(stats -> stats.name().equals(name)).findFirst().orElseThrow();
+        }
+    }
+
+    private final HttpClient client;
+    private final URI baseUri;
+
+    public LoadDriver(String baseUrl) {
+        this.baseUri = URI.create(baseUrl);
+        this.client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    public HttpRequest get(String path) {
+        return HttpRequest.newBuilder(baseUri.resolve(path)).GET().build();
+    }
+
+    public HttpRequest send(String method, String path, String json) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    public Report run(List<Endpoint> mix, int concurrency, Duration warmup, Duration duration) throws InterruptedException {
+        drive(mix, concurrency, warmup, new ConcurrentHashMap<>());
+
+        Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+        mix.forEach(endpoint -> recorders.put(endpoint.name(), new Recorder()));
+        long started = System.nanoTime();
+        drive(mix, concurrency, duration, recorders);
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        List<EndpointStats> stats = new ArrayList<>();
+        long total = 0;
+        for (Endpoint endpoint : mix) {
+            EndpointStats endpointStats = recorders.get(endpoint.name()).stats(endpoint.name(), seconds);
+            total += endpointStats.requests();
+            stats.add(endpointStats);
+        }
+        return new Report(concurrency, seconds, total / seconds, stats);
+    }
+
+    private void drive(List<Endpoint> mix, int concurrency, Duration duration, Map<String, Recorder> recorders)
+            throws InterruptedException {
+        int totalWeight = mix.stream().mapToInt(Endpoint::weight).sum();
+        long deadline = System.nanoTime() + duration.toNanos();
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        Endpoint endpoint = pick(mix, totalWeight);
+                        long start = System.nanoTime();
+                        boolean ok;
+                        try {
+                            HttpResponse<Void> response = client.send(endpoint.request().get(),
+                                    HttpResponse.BodyHandlers.discarding());
+                            ok = response.statusCode() < 400;
+                        } catch (Exception e) {
+                            ok = false;
+                        }
+                        Recorder recorder = recorders.get(endpoint.name());
+                        if (recorder != null) {
+                            recorder.record(System.nanoTime() - start, ok);
+                        }
+                    }
+                    return null;
+                });
+            }
+        }
+    }
+
+    private static Endpoint pick(List<Endpoint> mix, int totalWeight) {
+        int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+        for (Endpoint endpoint : mix) {
+            roll -= endpoint.weight();
+            if (roll < 0) {
+                return endpoint;
+            }
+        }
+        return mix.get(mix.size() - 1);
+    }
+
+    public static Map<String, Object> toMap(Report report) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("concurrency", report.concurrency());
+        result.put("duration_seconds", report.durationSeconds());
+        result.put("throughput_per_second", report.throughputPerSecond());
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        for (EndpointStats stats : report.endpoints()) {
+            Map<String, Object> endpoint = new LinkedHashMap<>();
+            endpoint.put("requests", stats.requests());
+            endpoint.put("errors", stats.errors());
+            endpoint.put("throughput_per_second", stats.throughputPerSecond());
+            endpoint.put("p50_ms", stats.p50Millis());
+            endpoint.put("p95_ms", stats.p95Millis());
+            endpoint.put("p99_ms", stats.p99Millis());
+            endpoint.put("max_ms", stats.maxMillis());
+            endpoints.put(stats.name(), endpoint);
+        }
+        result.put("endpoints", endpoints);
+        return result;
+    }
+
+    private static final class Recorder {
+
+        private final List<Long> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+
+        synchronized void record(long nanos, boolean ok) {
+            latencies.add(nanos);
+            if (!ok) {
+                errors.incrementAndGet();
+            }
+        }
+
+        synchronized EndpointStats stats(String name, double seconds) {
+            long[] sorted = latencies.stream().mapToLong(Long::longValue).toArray();
+            Arrays.sort(sorted);
+            return new EndpointStats(name, sorted.length, errors.get(), sorted.length / seconds,
+                    percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.emis_app.emis_app.benchmark;
+
+import com.emis_app.emis_app.EmisAppApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares platform-thread and virtual-thread request handling on the learner and school list
+ * endpoints. Each mode boots the application on the test profile with its own in-memory database
+ * and is driven with the same closed-loop load. Disabled by default; run with
+ * <pre>mvn test -Dspring.profiles.active=test -Dtest=ThreadModeBenchmarkTest -Demis.benchmark=true</pre>
+ * Tunables: {@code emis.benchmark.concurrency} (default 400), {@code emis.benchmark.duration} (PT20S),
+ * {@code emis.benchmark.report} (target/thread-mode-report.json, where both runs are written as JSON).
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "emis.benchmark", matches = "true")
+class ThreadModeBenchmarkTest {
+
+    private static final int CONCURRENCY = Integer.getInteger("emis.benchmark.concurrency", 400);
+    private static final Duration DURATION = Duration.parse(System.getProperty("emis.benchmark.duration", "PT20S"));
+    private static final String REPORT = System.getProperty("emis.benchmark.report", "target/thread-mode-report.json");
+
+    @Test
+    void compareThreadModes() throws Exception {
+        LoadDriver.Report platform = run(false);
+        LoadDriver.Report virtual = run(true);
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("platform", LoadDriver.toMap(platform));
+        json.put("virtual", LoadDriver.toMap(virtual));
+        File file = new File(REPORT);
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file, json);
+        log.info("Thread mode report written to {}", file.getAbsolutePath());
+
+        assertThat(platform.throughputPerSecond()).isPositive();
+        assertThat(virtual.throughputPerSecond()).isPositive();
+    }
+
+    private LoadDriver.Report run(boolean virtualThreads) throws InterruptedException {
+        String mode = virtualThreads ? "virtual" : "platform";
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EmisAppApplication.class)
+                .profiles("test")
+                // Command-line arguments, so they win over application.yml and the test profile
+                .run(
+                        "--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtualThreads,
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark_" + mode,
+                        "--spring.jmx.enabled=false",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--logging.level.org.hibernate.orm.jdbc.bind=WARN",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false")) {
+            assertThat(context.getEnvironment().getProperty("spring.threads.virtual.enabled", Boolean.class))
+                    .isEqualTo(virtualThreads);
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadDriver driver = new LoadDriver("http://localhost:" + port);
+            List<LoadDriver.Endpoint> mix = List.of(
+                    new LoadDriver.Endpoint("learners", 1, () -> driver.get("/api/v1/learners?size=20")),
+                    new LoadDriver.Endpoint("learners_advanced", 1,
+                            () -> driver.get("/api/v1/learners/search/advanced?gender=Female&size=20")),
+                    new LoadDriver.Endpoint("schools", 1, () -> driver.get("/api/v1/schools?size=20")));
+            return driver.run(mix, CONCURRENCY, Duration.ofSeconds(5), DURATION);
+        }
+    }
+}
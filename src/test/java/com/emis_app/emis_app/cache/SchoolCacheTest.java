@@ -0,0 +1,72 @@
+package com.emis_app.emis_app.cache;
+
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.entity.School;
+import com.emis_app.emis_app.service.LearnerService;
+import com.emis_app.emis_app.service.SchoolService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static com.emis_app.emis_app.TestFixtures.learner;
+import static com.emis_app.emis_app.TestFixtures.school;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SchoolCacheTest {
+
+    @Autowired
+    private SchoolCache schoolCache;
+
+    @Autowired
+    private SchoolService schoolService;
+
+    @Autowired
+    private LearnerService learnerService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void learnerPathsReadSchoolsFromTheCache() {
+        SchoolDTO school = schoolService.createSchool(school(50));
+        LearnerDTO learner = learnerService.createLearner(learner(school.getId()));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        learnerService.createLearner(learner(school.getId()));
+        LearnerDTO loaded = learnerService.getLearnerById(learner.getId()).orElseThrow();
+        schoolService.getSchoolById(school.getId());
+
+        assertThat(loaded.getSchoolName()).isEqualTo(school.getName());
+        assertThat(statistics.getEntityStatistics(School.class.getName()).getLoadCount()).isZero();
+        assertThat(meterRegistry.get("cache.gets").tag("cache", "schools").tag("result", "hit")
+                .functionCounter().count()).isPositive();
+    }
+
+    @Test
+    void updatesAndDeletesInvalidateTheSnapshot() {
+        SchoolDTO school = schoolService.createSchool(school(50));
+        LearnerDTO learner = learnerService.createLearner(learner(school.getId()));
+        assertThat(schoolCache.get(school.getId())).isPresent();
+
+        school.setName("Renamed " + school.getName());
+        schoolService.updateSchool(school.getId(), school);
+        assertThat(learnerService.getLearnerById(learner.getId()).orElseThrow().getSchoolName())
+                .isEqualTo(school.getName());
+
+        schoolService.deleteSchool(school.getId());
+        assertThat(schoolCache.get(school.getId())).isEmpty();
+        assertThat(schoolService.getSchoolById(school.getId())).isEmpty();
+    }
+}
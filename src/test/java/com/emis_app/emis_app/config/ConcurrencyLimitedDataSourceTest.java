@@ -0,0 +1,34 @@
+package com.emis_app.emis_app.config;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitedDataSourceTest {
+
+    @Test
+    void holdsAPermitUntilTheConnectionIsClosed() throws Exception {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:gate_test");
+        ConcurrencyLimitedDataSource gate = new ConcurrencyLimitedDataSource(h2, 1, Duration.ofMillis(50));
+
+        Connection first = gate.getConnection();
+        assertThat(gate.getAvailablePermits()).isZero();
+        assertThatThrownBy(gate::getConnection).isInstanceOf(SQLTransientConnectionException.class);
+
+        first.close();
+        first.close();
+        assertThat(gate.getAvailablePermits()).isEqualTo(1);
+
+        try (Connection second = gate.getConnection()) {
+            assertThat(second.isValid(1)).isTrue();
+        }
+        assertThat(gate.getAvailablePermits()).isEqualTo(1);
+    }
+}
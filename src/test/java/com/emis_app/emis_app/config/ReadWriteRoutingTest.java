@@ -0,0 +1,72 @@
+package com.emis_app.emis_app.config;
+
+import com.emis_app.emis_app.config.ReadWriteRoutingConfig.RoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadWriteRoutingTest {
+
+    @Test
+    void readOnlyTransactionsUseTheReplica() {
+        HikariDataSource primary = pool("jdbc:h2:mem:routing_primary;DB_CLOSE_DELAY=-1", "primary");
+        HikariDataSource replica = pool("jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1", "replica");
+        AtomicInteger fallbacks = new AtomicInteger();
+
+        try (RoutingDataSource routing = new RoutingDataSource(primary, replica,
+                new ReplicaFallbackDataSource(replica, primary, Duration.ofSeconds(30), fallbacks::incrementAndGet))) {
+            assertThat(answeringDatabase(routing, true)).isEqualTo("replica");
+            assertThat(answeringDatabase(routing, false)).isEqualTo("primary");
+            assertThat(new JdbcTemplate(routing).queryForObject("SELECT name FROM marker", String.class))
+                    .isEqualTo("primary");
+            assertThat(fallbacks).hasValue(0);
+        }
+        assertThat(primary.isClosed()).isTrue();
+        assertThat(replica.isClosed()).isTrue();
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhileTheReplicaIsDown() {
+        HikariDataSource primary = pool("jdbc:h2:mem:fallback_primary;DB_CLOSE_DELAY=-1", "primary");
+        HikariDataSource replica = new HikariDataSource();
+        replica.setJdbcUrl("jdbc:h2:tcp://localhost:1/unreachable");
+        replica.setConnectionTimeout(250);
+        replica.setInitializationFailTimeout(-1);
+        AtomicInteger fallbacks = new AtomicInteger();
+        ReplicaFallbackDataSource readOnly = new ReplicaFallbackDataSource(replica, primary, Duration.ofMinutes(1),
+                fallbacks::incrementAndGet);
+
+        try (RoutingDataSource routing = new RoutingDataSource(primary, replica, readOnly)) {
+            assertThat(answeringDatabase(routing, true)).isEqualTo("primary");
+            assertThat(readOnly.isReplicaAvailable()).isFalse();
+            // Within the recheck interval the replica is skipped rather than retried
+            assertThat(answeringDatabase(routing, true)).isEqualTo("primary");
+            assertThat(fallbacks).hasValue(2);
+        }
+    }
+
+    private static String answeringDatabase(RoutingDataSource routing, boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                new JdbcTemplate(routing).queryForObject("SELECT name FROM marker", String.class));
+    }
+
+    private static HikariDataSource pool(String url, String name) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setPoolName("routing-test-" + name);
+        JdbcTemplate jdbc = new JdbcTemplate(pool);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS marker (name VARCHAR(16))");
+        jdbc.update("DELETE FROM marker");
+        jdbc.update("INSERT INTO marker VALUES (?)", name);
+        return pool;
+    }
+}
@@ -0,0 +1,100 @@
+package com.emis_app.emis_app.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BatchLookupTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void learnersAreResolvedWithOneQueryInRequestedOrder() throws Exception {
+        List<Long> ids = ids("/api/v1/learners?size=5&sortBy=id");
+        List<Long> requested = new ArrayList<>(ids.reversed());
+        requested.add(1, Long.MAX_VALUE);
+
+        statistics.clear();
+        JsonNode learners = data("/api/v1/learners/batch?ids=" + join(requested));
+
+        assertThat(learners).extracting(learner -> learner.get("id").asLong()).containsExactlyElementsOf(ids.reversed());
+        assertThat(learners.get(0).get("school_name").asText()).isNotBlank();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void schoolsCarryLearnerCountsFromOneGroupedQuery() throws Exception {
+        List<Long> ids = ids("/api/v1/schools?size=5&sortBy=id");
+
+        statistics.clear();
+        JsonNode schools = data("/api/v1/schools/batch?ids=" + join(ids) + "&fields=id,learners_count");
+
+        assertThat(schools).extracting(school -> school.get("id").asLong()).containsExactlyElementsOf(ids);
+        assertThat(schools).allSatisfy(school ->
+                assertThat(school.fieldNames()).toIterable().containsExactlyInAnyOrder("id", "learners_count"));
+        // grouped learner count, plus one IN query when any school missed the cache
+        assertThat(statistics.getPrepareStatementCount()).isBetween(1L, 2L);
+    }
+
+    @Test
+    void requestsOverTheLimitAreRejected() throws Exception {
+        String ids = LongStream.rangeClosed(1, 101).mapToObj(Long::toString).collect(Collectors.joining(","));
+        mockMvc.perform(get("/api/v1/learners/batch?ids=" + ids))
+                .andExpect(status().isBadRequest());
+    }
+
+    private List<Long> ids(String uri) throws Exception {
+        List<Long> ids = new ArrayList<>();
+        data(uri).get("content").forEach(node -> ids.add(node.get("id").asLong()));
+        assertThat(ids).isNotEmpty();
+        return ids;
+    }
+
+    private static String join(List<Long> ids) {
+        return ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
+    private JsonNode data(String uri) throws Exception {
+        byte[] body = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readTree(body).get("data");
+    }
+}
@@ -0,0 +1,167 @@
+package com.emis_app.emis_app.controller;
+
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.service.LearnerService;
+import com.emis_app.emis_app.service.SchoolService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import java.time.LocalDateTime;
+
+import static com.emis_app.emis_app.TestFixtures.learner;
+import static com.emis_app.emis_app.TestFixtures.school;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ConditionalGetTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private SchoolService schoolService;
+
+    @Autowired
+    private LearnerService learnerService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private MockMvc mockMvc;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void unchangedSchoolIsAnsweredWithNotModifiedFromOneLookup() throws Exception {
+        SchoolDTO school = schoolService.createSchool(school(30));
+        String etag = etag("/api/v1/schools/" + school.getId());
+
+        statistics.clear();
+        mockMvc.perform(get("/api/v1/schools/" + school.getId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        school.setLocation("Gulu");
+        schoolService.updateSchool(school.getId(), school);
+        assertThat(etag("/api/v1/schools/" + school.getId())).isNotEqualTo(etag);
+    }
+
+    @Test
+    void enrollmentChangesTheSchoolAndListVersions() throws Exception {
+        SchoolDTO school = schoolService.createSchool(school(30));
+        String schoolEtag = etag("/api/v1/schools/" + school.getId());
+        String listEtag = etag("/api/v1/schools?size=5");
+        mockMvc.perform(get("/api/v1/schools?size=5").header(HttpHeaders.IF_NONE_MATCH, listEtag))
+                .andExpect(status().isNotModified());
+
+        LearnerDTO learner = learnerService.createLearner(learner(school.getId()));
+
+        assertThat(etag("/api/v1/schools/" + school.getId())).isNotEqualTo(schoolEtag);
+        assertThat(etag("/api/v1/schools?size=5")).isNotEqualTo(listEtag);
+        String learnerEtag = etag("/api/v1/learners/" + learner.getId());
+        mockMvc.perform(get("/api/v1/learners/" + learner.getId()).header(HttpHeaders.IF_NONE_MATCH, learnerEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void listVersionsAreSharedThroughTheDatabaseAndFollowCommitsOnly() throws Exception {
+        String listEtag = etag("/api/v1/learners?size=5");
+
+        SchoolDTO school = schoolService.createSchool(school(5));
+        LearnerDTO learner = learnerService.createLearner(learner(school.getId()));
+        String afterCreate = etag("/api/v1/learners?size=5");
+        assertThat(afterCreate).isNotEqualTo(listEtag);
+
+        // A flushed write that rolls back takes no version with it
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            learner.setGrade("P7");
+            learnerService.updateLearner(learner.getId(), learner);
+            status.setRollbackOnly();
+        });
+        assertThat(etag("/api/v1/learners?size=5")).isEqualTo(afterCreate);
+        learnerService.updateLearner(learner.getId(), learner);
+        String afterUpdate = etag("/api/v1/learners?size=5");
+        assertThat(afterUpdate).isNotEqualTo(afterCreate);
+
+        // A write committed by another instance is seen here
+        jdbcTemplate.queryForObject("SELECT nextval('resource_versions_seq')", Long.class);
+        assertThat(etag("/api/v1/learners?size=5")).isNotEqualTo(afterUpdate);
+    }
+
+    @Test
+    void cachedSchoolsAreRevalidatedAgainstTheVersionTheyAreServedWith() throws Exception {
+        SchoolDTO school = schoolService.createSchool(school(5));
+        String single = "/api/v1/schools/" + school.getId();
+        String batch = "/api/v1/schools/batch?ids=" + school.getId();
+        String singleEtag = etag(single);
+        String batchEtag = etag(batch);
+
+        // Another instance renames the school; the cache here is not evicted
+        String renamed = "Renamed " + school.getName();
+        jdbcTemplate.update("UPDATE schools SET name = ?, updated_at = ? WHERE id = ?",
+                renamed, LocalDateTime.now().plusSeconds(1), school.getId());
+        jdbcTemplate.queryForObject("SELECT nextval('resource_versions_seq')", Long.class);
+
+        mockMvc.perform(get(single))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.name").value(renamed))
+                .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(singleEtag));
+        mockMvc.perform(get(batch))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].name").value(renamed))
+                .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNotEqualTo(batchEtag));
+    }
+
+    @Test
+    void rejectedRequestsHaveNoEtag() throws Exception {
+        mockMvc.perform(get("/api/v1/schools?fields=no_such_field"))
+                .andExpect(status().isBadRequest())
+                .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNull());
+    }
+
+    @Test
+    void missingResourcesHaveNoEtag() throws Exception {
+        mockMvc.perform(get("/api/v1/schools/" + Long.MAX_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(result -> assertThat(result.getResponse().getHeader(HttpHeaders.ETAG)).isNull());
+    }
+
+    private String etag(String uri) throws Exception {
+        String etag = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).startsWith("\"");
+        return etag;
+    }
+}
@@ -0,0 +1,95 @@
+package com.emis_app.emis_app.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ContentNegotiationTest {
+
+    private static final String PAGE = "/api/v1/learners?size=50&sortBy=id";
+    private static final MediaType SMILE = MediaType.parseMediaType("application/x-jackson-smile");
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void binaryEncodingsCarryTheJsonDocument() throws Exception {
+        MockHttpServletResponse json = fetch(MediaType.ALL);
+        MockHttpServletResponse cbor = fetch(MediaType.APPLICATION_CBOR);
+        MockHttpServletResponse smile = fetch(SMILE);
+
+        assertThat(json.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(cbor.getContentType()).isEqualTo(MediaType.APPLICATION_CBOR_VALUE);
+        assertThat(smile.getContentType()).isEqualTo(SMILE.toString());
+
+        // Everything but the per-response timestamp
+        JsonNode expected = objectMapper.readTree(json.getContentAsByteArray()).get("data");
+        assertThat(new CBORMapper().readTree(cbor.getContentAsByteArray()).get("data")).isEqualTo(expected);
+        assertThat(new SmileMapper().readTree(smile.getContentAsByteArray()).get("data")).isEqualTo(expected);
+        assertThat(cbor.getContentAsByteArray().length).isLessThan(json.getContentAsByteArray().length);
+        assertThat(smile.getContentAsByteArray().length).isLessThan(cbor.getContentAsByteArray().length);
+
+        assertThat(cbor.getHeader(HttpHeaders.ETAG)).isNotEqualTo(json.getHeader(HttpHeaders.ETAG));
+        assertThat(cbor.getHeader(HttpHeaders.VARY)).contains(HttpHeaders.ACCEPT);
+    }
+
+    @Test
+    void etagFollowsTheNegotiatedEncodingNotTheAcceptText() throws Exception {
+        MockHttpServletResponse json = fetch(MediaType.ALL);
+        MockHttpServletResponse preferJson = mockMvc.perform(get(PAGE)
+                        .header(HttpHeaders.ACCEPT, "application/cbor;q=0.5, application/json"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(preferJson.getContentType()).startsWith(MediaType.APPLICATION_JSON_VALUE);
+        assertThat(preferJson.getHeader(HttpHeaders.ETAG)).isEqualTo(json.getHeader(HttpHeaders.ETAG));
+        mockMvc.perform(get(PAGE)
+                        .header(HttpHeaders.ACCEPT, "application/cbor;q=0.5, application/json")
+                        .header(HttpHeaders.IF_NONE_MATCH, json.getHeader(HttpHeaders.ETAG)))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void exportFollowsAcceptWhenNoFormatIsGiven() throws Exception {
+        MockHttpServletResponse export = mockMvc.perform(get("/api/v1/learners/export").accept("application/cbor-seq"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+
+        assertThat(export.getContentType()).isEqualTo("application/cbor-seq");
+        assertThat(export.getHeader(HttpHeaders.CONTENT_DISPOSITION)).contains("learners.cbor");
+    }
+
+    private MockHttpServletResponse fetch(MediaType accept) throws Exception {
+        return mockMvc.perform(get(PAGE).accept(accept))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+    }
+}
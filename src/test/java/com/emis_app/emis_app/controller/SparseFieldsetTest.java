@@ -0,0 +1,67 @@
+package com.emis_app.emis_app.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SparseFieldsetTest {
+
+    @Autowired
+    private WebApplicationContext context;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        mockMvc = MockMvcBuilders.webAppContextSetup(context).build();
+    }
+
+    @Test
+    void onlyRequestedFieldsAreWritten() throws Exception {
+        JsonNode learners = data("/api/v1/learners?size=3&fields=id,name").get("content");
+
+        assertThat(learners).isNotEmpty().allSatisfy(learner ->
+                assertThat(learner.fieldNames()).toIterable().containsExactlyInAnyOrder("id", "name"));
+
+        JsonNode school = data("/api/v1/schools/" + data("/api/v1/schools?size=1").get("content").get(0).get("id").asLong()
+                + "?fields=name,learners_count");
+        assertThat(school.fieldNames()).toIterable().containsExactlyInAnyOrder("name", "learners_count");
+    }
+
+    @Test
+    void withoutFieldsEveryPropertyIsWritten() throws Exception {
+        JsonNode learner = data("/api/v1/learners?size=1").get("content").get(0);
+
+        assertThat(learner.has("school_name")).isTrue();
+        assertThat(learner.has("academic_year")).isTrue();
+    }
+
+    @Test
+    void unknownFieldsAreRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/schools?fields=name,capacity"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode data(String uri) throws Exception {
+        byte[] body = mockMvc.perform(get(uri))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        return objectMapper.readTree(body).get("data");
+    }
+}
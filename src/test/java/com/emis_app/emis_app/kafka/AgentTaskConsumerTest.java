@@ -0,0 +1,93 @@
+package com.emis_app.emis_app.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class AgentTaskConsumerTest {
+
+    private final Map<String, List<String>> handled = new ConcurrentHashMap<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void keepsPerKeyOrderAndAcknowledgesOnceProcessed() {
+        AgentTaskConsumer consumer = new AgentTaskConsumer(List.of(recordingHandler(null)), meterRegistry, 4);
+        List<ConsumerRecord<String, AgentResponse>> batch = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            batch.add(record(i, "school-" + (i % 3), "task-" + i));
+        }
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        consumer.listen(batch, acknowledgment);
+
+        verify(acknowledgment).acknowledge();
+        assertThat(handled).hasSize(3);
+        handled.forEach((key, tasks) -> {
+            List<Integer> sequence = tasks.stream().map(task -> Integer.parseInt(task.substring(5))).toList();
+            assertThat(sequence).isSorted().hasSize(20);
+        });
+        assertThat(meterRegistry.get("emis.kafka.consumer.batch").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("emis.kafka.consumer.batch.size").summary().totalAmount()).isEqualTo(60);
+    }
+
+    @Test
+    void reportsTheEarliestFailedRecordWithoutAcknowledging() {
+        AgentTaskConsumer consumer = new AgentTaskConsumer(List.of(recordingHandler("task-4")), meterRegistry, 4);
+        List<ConsumerRecord<String, AgentResponse>> batch = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            batch.add(record(i, "school-" + (i % 2), "task-" + i));
+        }
+        Acknowledgment acknowledgment = mock(Acknowledgment.class);
+
+        assertThatThrownBy(() -> consumer.listen(batch, acknowledgment))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(4));
+        verify(acknowledgment, never()).acknowledge();
+        // Records after the failure on the same key are held back
+        assertThat(handled.get("school-0")).containsExactly("task-0", "task-2");
+    }
+
+    private AgentResponseHandler recordingHandler(String failingTask) {
+        return new AgentResponseHandler() {
+            @Override
+            public String type() {
+                return "recount";
+            }
+
+            @Override
+            public void handle(AgentResponse response) {
+                if (response.taskId().equals(failingTask)) {
+                    throw new IllegalStateException("boom");
+                }
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextInt(2));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                handled.computeIfAbsent("school-" + response.schoolId(), k -> Collections.synchronizedList(new ArrayList<>()))
+                        .add(response.taskId());
+            }
+        };
+    }
+
+    private static ConsumerRecord<String, AgentResponse> record(long offset, String key, String taskId) {
+        long schoolId = Long.parseLong(key.substring(7));
+        return new ConsumerRecord<>("agent.responses", 0, offset, key,
+                new AgentResponse(taskId, "recount", "DONE", schoolId, Map.of(), null));
+    }
+}
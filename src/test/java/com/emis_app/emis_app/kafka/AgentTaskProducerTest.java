@@ -0,0 +1,151 @@
+package com.emis_app.emis_app.kafka;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@EmbeddedKafka(partitions = 3, topics = {"agent.tasks.test", "agent.tasks.untuned", "agent.tasks.tuned"})
+class AgentTaskProducerTest {
+
+    @Test
+    void sendsJsonTasksKeyedBySchool(EmbeddedKafkaBroker broker) throws Exception {
+        KafkaTemplate<String, AgentTask> template = template(broker, tunedSettings());
+        AgentTaskProducer producer = producer(template, 100, Duration.ofSeconds(5));
+
+        List<CompletableFuture<SendResult<String, AgentTask>>> sends = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sends.add(producer.send("agent.tasks.test", AgentTask.of("recount", 42L, Map.of("sequence", i))));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+        template.destroy();
+
+        try (Consumer<String, String> consumer = consumer(broker, "agent.tasks.test")) {
+            ConsumerRecords<String, String> records = KafkaTestUtils.getRecords(consumer, Duration.ofSeconds(10), 5);
+            assertThat(records.count()).isEqualTo(5);
+            List<Integer> partitions = new ArrayList<>();
+            for (ConsumerRecord<String, String> record : records) {
+                assertThat(record.key()).isEqualTo("42");
+                assertThat(record.value()).contains("\"task_id\"", "\"school_id\":42", "\"type\":\"recount\"");
+                assertThat(record.headers().lastHeader("__TypeId__")).isNull();
+                partitions.add(record.partition());
+            }
+            assertThat(partitions).containsOnly(partitions.get(0));
+        }
+        assertThat(producer.getInFlight()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void blocksCallersAtTheInFlightLimit() {
+        KafkaTemplate<String, AgentTask> template = mock(KafkaTemplate.class);
+        CompletableFuture<SendResult<String, AgentTask>> pending = new CompletableFuture<>();
+        when(template.send(anyString(), anyString(), any(AgentTask.class))).thenReturn(pending);
+        AgentTaskProducer producer = producer(template, 1, Duration.ofMillis(50));
+
+        producer.send("agent.tasks.test", AgentTask.of("recount", 1L, Map.of()));
+        assertThat(producer.getInFlight()).isEqualTo(1);
+        assertThatThrownBy(() -> producer.send("agent.tasks.test", AgentTask.of("recount", 1L, Map.of())))
+                .isInstanceOf(KafkaException.class);
+
+        pending.complete(null);
+        assertThat(producer.getInFlight()).isZero();
+        producer.send("agent.tasks.test", AgentTask.of("recount", 1L, Map.of()));
+    }
+
+    /**
+     * Client defaults against the batching, linger and lz4 settings from application.yml. Disabled by
+     * default; run with {@code -Demis.benchmark=true}, message count via {@code emis.benchmark.messages}.
+     */
+    @Test
+    @EnabledIfSystemProperty(named = "emis.benchmark", matches = "true")
+    void compareProducerSettings(EmbeddedKafkaBroker broker) {
+        int messages = Integer.getInteger("emis.benchmark.messages", 200_000);
+        Map<String, Object> untuned = Map.of(ProducerConfig.LINGER_MS_CONFIG, 0,
+                ProducerConfig.BATCH_SIZE_CONFIG, 16_384, ProducerConfig.COMPRESSION_TYPE_CONFIG, "none");
+
+        double untunedRate = throughput(broker, "agent.tasks.untuned", untuned, messages);
+        double tunedRate = throughput(broker, "agent.tasks.tuned", tunedSettings(), messages);
+
+        System.out.printf("%-28s %12s %12s%n", "", "untuned", "tuned");
+        System.out.printf("%-28s %12.0f %12.0f%n", "throughput (msg/s)", untunedRate, tunedRate);
+        assertThat(tunedRate).isPositive();
+    }
+
+    private double throughput(EmbeddedKafkaBroker broker, String topic, Map<String, Object> settings, int messages) {
+        KafkaTemplate<String, AgentTask> template = template(broker, settings);
+        AgentTaskProducer producer = producer(template, 10_000, Duration.ofSeconds(30));
+        Map<String, Object> payload = Map.of("learner_ids", List.of(1, 2, 3, 4, 5), "reason", "enrollment changed");
+        // Warm up the connection and metadata before timing
+        producer.send(topic, AgentTask.of("recount", 0L, payload)).join();
+
+        long started = System.nanoTime();
+        CompletableFuture<?> last = null;
+        for (int i = 0; i < messages; i++) {
+            last = producer.send(topic, AgentTask.of("recount", (long) (i % 500), payload));
+        }
+        last.join();
+        while (producer.getInFlight() > 0) {
+            Thread.onSpinWait();
+        }
+        double rate = messages / ((System.nanoTime() - started) / 1e9);
+        template.destroy();
+        return rate;
+    }
+
+    // Mirrors spring.kafka.producer in application.yml
+    private static Map<String, Object> tunedSettings() {
+        return Map.of(ProducerConfig.LINGER_MS_CONFIG, 10, ProducerConfig.BATCH_SIZE_CONFIG, 65_536,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4");
+    }
+
+    private static KafkaTemplate<String, AgentTask> template(EmbeddedKafkaBroker broker, Map<String, Object> settings) {
+        Map<String, Object> props = new HashMap<>(KafkaTestUtils.producerProps(broker));
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        props.putAll(settings);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props, new StringSerializer(), new JsonSerializer<>()));
+    }
+
+    private static AgentTaskProducer producer(KafkaTemplate<String, AgentTask> template, int maxInFlight, Duration timeout) {
+        return new AgentTaskProducer(template, new SimpleMeterRegistry(), "agent.tasks", maxInFlight, timeout);
+    }
+
+    private static Consumer<String, String> consumer(EmbeddedKafkaBroker broker, String topic) {
+        Map<String, Object> props = KafkaTestUtils.consumerProps("agent-task-test", "false", broker);
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        Consumer<String, String> consumer = new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(),
+                new StringDeserializer()).createConsumer();
+        broker.consumeFromAnEmbeddedTopic(consumer, topic);
+        return consumer;
+    }
+}
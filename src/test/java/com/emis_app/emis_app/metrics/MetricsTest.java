@@ -0,0 +1,51 @@
+package com.emis_app.emis_app.metrics;
+
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.TotalMode;
+import com.emis_app.emis_app.service.SchoolService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class MetricsTest {
+
+    @Autowired
+    private SchoolService schoolService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void servicesRepositoriesAndHibernateAreMeasured() {
+        schoolService.getAllSchools(0, 5, "name", "asc", TotalMode.EXACT, FieldSet.ALL);
+
+        assertThat(meterRegistry.find("emis.service").tag("method", "getAllSchools").timer()).isNotNull();
+        assertThat(meterRegistry.find("spring.data.repository.invocations").tag("repository", "SchoolRepository").timer())
+                .isNotNull();
+        assertThat(meterRegistry.find("hibernate.statements").functionCounter()).isNotNull();
+    }
+
+    @Test
+    void recordsDatabaseUsagePerRequestPattern() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/schools");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/schools");
+
+        new DatabaseUsageFilter(registry).doFilter(request, new MockHttpServletResponse(),
+                (req, res) -> schoolService.getAllSchools(0, 5, "name", "asc", TotalMode.EXACT, FieldSet.ALL));
+
+        assertThat(registry.get("emis.request.statements").tag("uri", "/api/v1/schools").summary().totalAmount())
+                .isPositive();
+        assertThat(registry.get("emis.request.connection.hold").tag("method", "GET").timer().count()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,156 @@
+package com.emis_app.emis_app.outbox;
+
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.entity.OutboxEvent;
+import com.emis_app.emis_app.repository.OutboxEventRepository;
+import com.emis_app.emis_app.service.LearnerService;
+import com.emis_app.emis_app.service.SchoolService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.emis_app.emis_app.TestFixtures.learner;
+import static com.emis_app.emis_app.TestFixtures.school;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OutboxTest {
+
+    @Autowired
+    private LearnerService learnerService;
+
+    @Autowired
+    private SchoolService schoolService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void mutationsRecordEventsInTheirTransaction() {
+        SchoolDTO school = schoolService.createSchool(school(1));
+        LearnerDTO learner = learnerService.createLearner(learner(school.getId()));
+        learner.setGrade("P6");
+        learnerService.updateLearner(learner.getId(), learner);
+        assertThatThrownBy(() -> learnerService.createLearner(learner(school.getId())))
+                .hasMessageContaining("capacity");
+        learnerService.deleteLearner(learner.getId());
+
+        List<OutboxEvent> events = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateId().equals(learner.getId()) && event.getAggregateType().equals("LEARNER"))
+                .toList();
+        assertThat(events).extracting(OutboxEvent::getEventType).containsExactly("CREATED", "UPDATED", "DELETED");
+        assertThat(events.get(1).getPayload()).contains("\"grade\":\"P6\"", "\"school_id\":" + school.getId());
+        assertThat(events.get(2).getPayload()).isNull();
+        assertThat(outboxEventRepository.findAll()).anyMatch(event -> event.getAggregateType().equals("SCHOOL")
+                && event.getAggregateId().equals(school.getId()) && event.getEventType().equals("CREATED"));
+    }
+
+    @Test
+    void concurrentUpdatesOfOneLearnerRecordEventsInCommitOrder() throws Exception {
+        SchoolDTO school = schoolService.createSchool(school(5));
+        LearnerDTO learner = learnerService.createLearner(learner(school.getId()));
+
+        CountDownLatch updated = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    learnerService.updateLearner(learner.getId(), withGrade(learner, "P6"));
+                    updated.countDown();
+                    await(release);
+                }));
+        assertThat(updated.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<LearnerDTO> second = CompletableFuture.supplyAsync(() ->
+                learnerService.updateLearner(learner.getId(), withGrade(learner, "P7")));
+        Thread.sleep(200);
+        release.countDown();
+        first.get(5, TimeUnit.SECONDS);
+        second.get(5, TimeUnit.SECONDS);
+
+        String grade = learnerService.getLearnerById(learner.getId()).orElseThrow().getGrade();
+        OutboxEvent last = outboxEventRepository.findAll().stream()
+                .filter(event -> event.getAggregateType().equals("LEARNER") && event.getAggregateId().equals(learner.getId()))
+                .max(Comparator.comparing(OutboxEvent::getId))
+                .orElseThrow();
+        assertThat(grade).isEqualTo("P7");
+        assertThat(last.getPayload()).contains("\"grade\":\"" + grade + "\"");
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void relayPublishesInOrderAndStopsAtTheFirstFailure() {
+        KafkaTemplate<String, ChangeEvent> template = mock(KafkaTemplate.class);
+        List<ChangeEvent> sent = new ArrayList<>();
+        when(template.send(anyString(), anyString(), any(ChangeEvent.class))).thenAnswer(invocation -> {
+            sent.add(invocation.getArgument(2));
+            return CompletableFuture.completedFuture(mock(SendResult.class));
+        });
+        OutboxRelay relay = relay(template);
+        relay.relay();
+        assertThat(outboxEventRepository.count()).isZero();
+
+        SchoolDTO school = schoolService.createSchool(school(10));
+        LearnerDTO first = learnerService.createLearner(learner(school.getId()));
+        LearnerDTO second = learnerService.createLearner(learner(school.getId()));
+        sent.clear();
+        when(template.send(anyString(), anyString(), any(ChangeEvent.class))).thenAnswer(invocation -> {
+            ChangeEvent event = invocation.getArgument(2);
+            sent.add(event);
+            // No outbox row lock or connection is held while the broker is called
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            return event.aggregateId().equals(second.getId())
+                    ? CompletableFuture.failedFuture(new IllegalStateException("broker unavailable"))
+                    : CompletableFuture.completedFuture(mock(SendResult.class));
+        });
+
+        relay.relay();
+
+        assertThat(sent).extracting(ChangeEvent::aggregateId).containsExactly(school.getId(), first.getId(), second.getId());
+        assertThat(sent).extracting(ChangeEvent::eventId).isSorted();
+        assertThat(outboxEventRepository.findAll()).extracting(OutboxEvent::getAggregateId).containsExactly(second.getId());
+    }
+
+    private static LearnerDTO withGrade(LearnerDTO learner, String grade) {
+        LearnerDTO update = learner(learner.getName(), learner.getGender(), grade, learner.getSchoolId());
+        update.setAcademicYear(learner.getAcademicYear());
+        return update;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private OutboxRelay relay(KafkaTemplate<String, ChangeEvent> template) {
+        return new OutboxRelay(outboxEventRepository, template, transactionManager, new SimpleMeterRegistry(),
+                "emis.learners.changes", "emis.schools.changes", 100, Duration.ofSeconds(1));
+    }
+}
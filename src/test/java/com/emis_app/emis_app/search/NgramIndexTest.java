@@ -0,0 +1,68 @@
+package com.emis_app.emis_app.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NgramIndexTest {
+
+    @Test
+    void findsCaseInsensitiveSubstringsAnywhereInTheText() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "Accra Academy");
+        index.put(2L, "Achimota School");
+        index.put(3L, "Wesley Girls High School");
+
+        assertThat(index.search("SCHOOL")).containsExactlyInAnyOrder(2L, 3L);
+        assertThat(index.search("cad")).containsExactly(1L);
+        assertThat(index.search("ley girls")).containsExactly(3L);
+        assertThat(index.search("xyz")).isEmpty();
+    }
+
+    @Test
+    void updatesAndRemovalsReplaceThePreviousPostings() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "Kofi Mensah");
+        index.put(1L, "Kofi Boateng");
+        index.put(2L, "Ama Mensah");
+
+        assertThat(index.search("mensah")).containsExactly(2L);
+        assertThat(index.search("boateng")).containsExactly(1L);
+
+        index.remove(2L);
+        assertThat(index.search("mensah")).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+    }
+
+    @Test
+    void postingsStaySortedSetsWhateverTheInsertAndRemoveOrder() {
+        NgramIndex index = new NgramIndex();
+        for (long id = 1000; id >= 1; id--) {
+            index.put(id, "Learner " + id);
+        }
+        for (long id = 1; id <= 1000; id += 2) {
+            index.remove(id);
+        }
+        index.put(2L, "Learner 2");
+
+        assertThat(index.search("learner")).hasSize(500).allMatch(id -> id % 2 == 0);
+        assertThat(index.search("learner 99")).containsExactlyInAnyOrder(990L, 992L, 994L, 996L, 998L);
+    }
+
+    @Test
+    void bulkLoadDoesNotOverwriteALiveUpdate() {
+        NgramIndex index = new NgramIndex();
+        index.put(1L, "Renamed Learner");
+        index.putIfAbsent(1L, "Original Learner");
+
+        assertThat(index.search("renamed")).containsExactly(1L);
+        assertThat(index.search("original")).isEmpty();
+    }
+
+    @Test
+    void rejectsQueriesShorterThanAGram() {
+        assertThatThrownBy(() -> new NgramIndex().search("ab"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,60 @@
+package com.emis_app.emis_app.seeder;
+
+import com.emis_app.emis_app.seeder.SyntheticDataGenerator.SchoolPlan;
+import com.emis_app.emis_app.seeder.SyntheticDataGenerator.WeightedChoice;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SyntheticDataGeneratorTest {
+
+    @Autowired
+    private SyntheticDataGenerator generator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void plansAreReproducibleAndRespectCapacity() {
+        List<SchoolPlan> plans = generator.planSchools();
+
+        assertThat(generator.planSchools()).isEqualTo(plans);
+        assertThat(plans).hasSize(20);
+        assertThat(plans.stream().mapToLong(SchoolPlan::enrolled).sum()).isEqualTo(200);
+        assertThat(plans).allSatisfy(plan -> assertThat(plan.enrolled()).isLessThanOrEqualTo(plan.capacity()));
+    }
+
+    @Test
+    void generatedPopulationIsLoadedAtStartup() {
+        Integer schools = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM schools WHERE location LIKE '% District'", Integer.class);
+        Integer primaryLearnersOutsidePGrades = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM learners l JOIN schools s ON s.id = l.school_id "
+                        + "WHERE s.school_type LIKE '%Primary' AND l.grade NOT LIKE 'P%'", Integer.class);
+
+        assertThat(schools).isGreaterThanOrEqualTo(20);
+        assertThat(primaryLearnersOutsidePGrades).isZero();
+    }
+
+    @Test
+    void weightedChoiceNeverPicksZeroWeightValues() {
+        WeightedChoice choice = WeightedChoice.parse("genders", "Male:1,Other:0,Female:1");
+        SplittableRandom random = new SplittableRandom(7);
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(choice.pick(random)).isNotEqualTo("Other");
+        }
+        assertThat(WeightedChoice.parse("grades", "P1:1,S1:2").filter("S").pick(random)).isEqualTo("S1");
+        assertThatThrownBy(() -> WeightedChoice.parse("genders", "Male")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,80 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.BulkEnrollmentResult;
+import com.emis_app.emis_app.dto.BulkEnrollmentRowResult;
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.repository.LearnerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.emis_app.emis_app.TestFixtures.learner;
+import static com.emis_app.emis_app.TestFixtures.school;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BulkEnrollmentServiceTest {
+
+    @Autowired
+    private BulkEnrollmentService bulkEnrollmentService;
+
+    @Autowired
+    private SchoolService schoolService;
+
+    @Autowired
+    private LearnerRepository learnerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void insertsLearnersInJdbcBatches() {
+        SchoolDTO school = schoolService.createSchool(school(1000));
+        List<LearnerDTO> learners = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            learners.add(learner("Learner " + i, school.getId()));
+        }
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        BulkEnrollmentResult result = bulkEnrollmentService.enrollLearners(learners);
+
+        assertThat(result.getCreated()).isEqualTo(200);
+        assertThat(learnerRepository.countBySchoolId(school.getId())).isEqualTo(200);
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(200);
+        // 200 rows in batches of 50 plus school lookup, grouped count and sequence calls
+        assertThat(statistics.getPrepareStatementCount()).isLessThan(20);
+    }
+
+    @Test
+    void rejectsRowsIndividually() {
+        SchoolDTO school = schoolService.createSchool(school(2));
+        List<LearnerDTO> learners = Arrays.asList(
+                learner("First", school.getId()),
+                learner("", school.getId()),
+                learner("Second", school.getId()),
+                learner("Third", school.getId()),
+                learner("Nowhere", Long.MAX_VALUE),
+                null);
+
+        BulkEnrollmentResult result = bulkEnrollmentService.enrollLearners(learners);
+
+        assertThat(result.getCreated()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(4);
+        assertThat(result.getResults()).extracting(BulkEnrollmentRowResult::isSuccess)
+                .containsExactly(true, false, true, false, false, false);
+        assertThat(result.getResults().get(3).getMessage()).contains("capacity");
+        assertThat(result.getResults().get(4).getMessage()).contains("School not found");
+        assertThat(result.getResults().get(5).getMessage()).contains("missing");
+    }
+}
@@ -0,0 +1,29 @@
+package com.emis_app.emis_app.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountEstimatorTest {
+
+    @Test
+    void absentFiltersDoNotCollideWithLiteralValues() {
+        assertThat(CountEstimator.key("name", null)).isNotEqualTo(CountEstimator.key("name", "null"));
+        assertThat(CountEstimator.key("name", "a&grade=P1", "grade", null))
+                .isNotEqualTo(CountEstimator.key("name", "a", "grade", "P1"));
+    }
+
+    @Test
+    void eachKeyIsCountedOncePerTtl() {
+        CountEstimator estimator = new CountEstimator(Duration.ofMinutes(1), 100);
+        AtomicInteger counts = new AtomicInteger();
+
+        assertThat(estimator.estimate("learners?name", () -> counts.incrementAndGet() * 10L)).isEqualTo(10);
+        assertThat(estimator.estimate("learners?name", () -> counts.incrementAndGet() * 10L)).isEqualTo(10);
+        assertThat(estimator.estimate("learners?name=null", () -> counts.incrementAndGet() * 10L)).isEqualTo(20);
+        assertThat(counts).hasValue(2);
+    }
+}
@@ -0,0 +1,147 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.repository.SchoolRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static com.emis_app.emis_app.TestFixtures.learner;
+import static com.emis_app.emis_app.TestFixtures.school;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EnrollmentCounterTest {
+
+    @Autowired
+    private LearnerService learnerService;
+
+    @Autowired
+    private SchoolService schoolService;
+
+    @Autowired
+    private SchoolRepository schoolRepository;
+
+    @Autowired
+    private EnrollmentReconciler enrollmentReconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void counterEnforcesCapacityAndFollowsDeletesAndTransfers() {
+        SchoolDTO full = schoolService.createSchool(school(1));
+        SchoolDTO other = schoolService.createSchool(school(5));
+
+        LearnerDTO first = learnerService.createLearner(learner(full.getId()));
+        assertThatThrownBy(() -> learnerService.createLearner(learner(full.getId())))
+                .hasMessageContaining("capacity");
+        assertThat(enrolled(full)).isEqualTo(1);
+
+        first.setSchoolId(other.getId());
+        learnerService.updateLearner(first.getId(), first);
+        assertThat(enrolled(full)).isZero();
+        assertThat(enrolled(other)).isEqualTo(1);
+
+        learnerService.deleteLearner(first.getId());
+        assertThat(enrolled(other)).isZero();
+    }
+
+    @Test
+    void schoolUpdateDoesNotOverwriteCounter() {
+        SchoolDTO school = schoolService.createSchool(school(3));
+        learnerService.createLearner(learner(school.getId()));
+
+        school.setLocation("Entebbe");
+        schoolService.updateSchool(school.getId(), school);
+
+        assertThat(enrolled(school)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcilerCorrectsDrift() {
+        SchoolDTO school = schoolService.createSchool(school(3));
+        learnerService.createLearner(learner(school.getId()));
+        jdbcTemplate.update("UPDATE schools SET enrolled_count = 3 WHERE id = ?", school.getId());
+
+        assertThat(enrollmentReconciler.reconcile()).isPositive();
+        assertThat(enrolled(school)).isEqualTo(1);
+    }
+
+    @Test
+    void reconcilerWaitsForInFlightEnrollments() throws Exception {
+        SchoolDTO school = schoolService.createSchool(school(5));
+        learnerService.createLearner(learner(school.getId()));
+        jdbcTemplate.update("UPDATE schools SET enrolled_count = 3 WHERE id = ?", school.getId());
+
+        CountDownLatch enrolling = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> enrollment = CompletableFuture.runAsync(() ->
+                new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                    learnerService.createLearner(learner(school.getId()));
+                    enrolling.countDown();
+                    await(release);
+                }));
+        assertThat(enrolling.await(5, TimeUnit.SECONDS)).isTrue();
+
+        CompletableFuture<Integer> reconcile = CompletableFuture.supplyAsync(enrollmentReconciler::reconcile);
+        Thread.sleep(200);
+        assertThat(reconcile).isNotDone();
+        release.countDown();
+        enrollment.get(5, TimeUnit.SECONDS);
+
+        assertThat(reconcile.get(5, TimeUnit.SECONDS)).isPositive();
+        assertThat(enrolled(school)).isEqualTo(2);
+    }
+
+    @Test
+    void oppositeTransfersBetweenTwoSchoolsDoNotDeadlock() throws Exception {
+        SchoolDTO first = schoolService.createSchool(school(50));
+        SchoolDTO second = schoolService.createSchool(school(50));
+        LearnerDTO fromFirst = learnerService.createLearner(learner(first.getId()));
+        LearnerDTO fromSecond = learnerService.createLearner(learner(second.getId()));
+
+        CompletableFuture<Void> forward = CompletableFuture.runAsync(() -> shuttle(fromFirst, second, first));
+        CompletableFuture<Void> backward = CompletableFuture.runAsync(() -> shuttle(fromSecond, first, second));
+        CompletableFuture.allOf(forward, backward).get(30, TimeUnit.SECONDS);
+
+        assertThat(enrolled(first)).isEqualTo(1);
+        assertThat(enrolled(second)).isEqualTo(1);
+    }
+
+    // Moves the learner to the target school and back again, 20 times
+    private void shuttle(LearnerDTO learner, SchoolDTO target, SchoolDTO home) {
+        for (int i = 0; i < 20; i++) {
+            learner.setSchoolId(target.getId());
+            learnerService.updateLearner(learner.getId(), learner);
+            learner.setSchoolId(home.getId());
+            learnerService.updateLearner(learner.getId(), learner);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int enrolled(SchoolDTO school) {
+        return schoolRepository.findEnrolledCountById(school.getId()).orElseThrow();
+    }
+}
@@ -0,0 +1,67 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.ExportFormat;
+import com.emis_app.emis_app.repository.LearnerRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LearnerExportServiceTest {
+
+    @Autowired
+    private LearnerExportService learnerExportService;
+
+    @Autowired
+    private LearnerRepository learnerRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void ndjsonExportWritesOneLearnerPerLineWithSchoolName() throws Exception {
+        List<String> lines = export(ExportFormat.NDJSON);
+
+        assertThat(lines).hasSize((int) learnerRepository.count());
+        JsonNode first = objectMapper.readTree(lines.get(0));
+        assertThat(first.get("school_name").asText()).isNotBlank();
+        assertThat(first.get("academic_year").asText()).matches("\\d{4}-\\d{4}");
+    }
+
+    @Test
+    void csvExportWritesHeaderAndOneRowPerLearner() throws Exception {
+        List<String> lines = export(ExportFormat.CSV);
+
+        assertThat(lines.get(0)).startsWith("id,name,gender");
+        assertThat(lines).hasSize((int) learnerRepository.count() + 1);
+    }
+
+    @Test
+    void cborExportIsASequenceWithTheNdjsonFields() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        learnerExportService.exportLearners(null, null, null, null, null, null, ExportFormat.CBOR, out);
+
+        List<JsonNode> learners = new CBORMapper().readerFor(JsonNode.class)
+                .<JsonNode>readValues(out.toByteArray()).readAll();
+        assertThat(learners).hasSize((int) learnerRepository.count());
+        assertThat(learners.get(0)).isEqualTo(objectMapper.readTree(export(ExportFormat.NDJSON).get(0)));
+        assertThat(out.size()).isLessThan(String.join("\n", export(ExportFormat.NDJSON)).length());
+    }
+
+    private List<String> export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        learnerExportService.exportLearners(null, null, null, null, null, null, format, out);
+        return out.toString(StandardCharsets.UTF_8).lines().toList();
+    }
+}
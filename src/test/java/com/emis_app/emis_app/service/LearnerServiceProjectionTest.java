@@ -0,0 +1,87 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.PagedResponse;
+import com.emis_app.emis_app.dto.TotalMode;
+import com.emis_app.emis_app.repository.LearnerRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LearnerServiceProjectionTest {
+
+    @Autowired
+    private LearnerService learnerService;
+
+    @Autowired
+    private LearnerRepository learnerRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void listPagesAreProjectedInOneStatementWithoutLoadingEntities() {
+        statistics.clear();
+        PagedResponse<LearnerDTO> page = learnerService.getAllLearners(0, 10, "name", "asc", TotalMode.NONE, FieldSet.ALL);
+
+        assertThat(page.getContent()).isNotEmpty().allSatisfy(learner -> {
+            assertThat(learner.getSchoolId()).isNotNull();
+            assertThat(learner.getSchoolName()).isNotBlank();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void exactPagesAddOnlyTheCountQuery() {
+        statistics.clear();
+        PagedResponse<LearnerDTO> page = learnerService.advancedSearch(null, "female", null, null, null, "a",
+                0, 2, "name", "asc", TotalMode.EXACT, FieldSet.ALL);
+
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+        assertThat(page.getTotalElements()).isEqualTo(learnerRepository.count(
+                learnerService.searchSpecification(null, "female", null, null, null, "a")));
+    }
+
+    @Test
+    void sparseFieldsetsSelectOnlyTheRequestedColumns() {
+        FieldSet fields = FieldSet.parse("id,name");
+        statistics.clear();
+        PagedResponse<LearnerDTO> page = learnerService.getAllLearners(0, 5, "grade", "asc", TotalMode.NONE, fields);
+
+        assertThat(page.getContent()).isNotEmpty().allSatisfy(learner -> {
+            assertThat(learner.getName()).isNotBlank();
+            // the sort key stays selected, the school is not joined
+            assertThat(learner.getGrade()).isNotBlank();
+            assertThat(learner.getGender()).isNull();
+            assertThat(learner.getSchoolName()).isNull();
+        });
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+        Long id = page.getContent().get(0).getId();
+        statistics.clear();
+        assertThat(learnerService.getLearnerById(id, fields)).hasValueSatisfying(learner -> {
+            assertThat(learner.getId()).isEqualTo(id);
+            assertThat(learner.getAcademicYear()).isNull();
+        });
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+}
@@ -0,0 +1,64 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.CursorPagedResponse;
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.TotalMode;
+import com.emis_app.emis_app.specification.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LearnerServiceScrollTest {
+
+    @Autowired
+    private LearnerService learnerService;
+
+    @Test
+    void scrollingVisitsEveryLearnerOnceInSortOrder() {
+        List<Long> expected = learnerService.getAllLearners(0, 1000, "name", "desc", TotalMode.EXACT, FieldSet.ALL).getContent().stream()
+                .map(LearnerDTO::getId)
+                .toList();
+
+        List<LearnerDTO> visited = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPagedResponse<LearnerDTO> page = learnerService.scrollLearners(
+                    null, null, null, null, null, null, after, 3, "name", "desc", FieldSet.ALL);
+            visited.addAll(page.getContent());
+            after = page.getNextCursor();
+        } while (after != null);
+
+        assertThat(visited).extracting(LearnerDTO::getName)
+                .isSortedAccordingTo((a, b) -> b.compareTo(a));
+        assertThat(visited).extracting(LearnerDTO::getId).containsExactlyInAnyOrderElementsOf(expected);
+    }
+
+    @Test
+    void cursorIssuedForAnotherSortIsRejected() {
+        String cursor = learnerService.scrollLearners(
+                null, null, null, null, null, null, null, 1, "name", "asc", FieldSet.ALL).getNextCursor();
+
+        assertThatThrownBy(() -> learnerService.scrollLearners(
+                null, null, null, null, null, null, cursor, 1, "grade", "asc", FieldSet.ALL))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void pageSizesOutsideTheAllowedRangeAreRejected() {
+        for (int size : new int[]{0, -1, KeysetCursor.MAX_PAGE_SIZE + 1}) {
+            assertThatThrownBy(() -> learnerService.scrollLearners(
+                    null, null, null, null, null, null, null, size, "name", "asc", FieldSet.ALL))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
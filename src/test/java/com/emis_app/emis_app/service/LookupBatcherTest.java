@@ -0,0 +1,139 @@
+package com.emis_app.emis_app.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LookupBatcherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<List<Long>> batches = new CopyOnWriteArrayList<>();
+
+    @Test
+    void concurrentLookupsShareOneQuery() throws Exception {
+        LookupBatcher batcher = batcher(100, Duration.ofMillis(200));
+
+        List<Optional<String>> results = lookUpConcurrently(batcher, 20, this::names);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(results.get(i)).isEqualTo(i % 5 == 0 ? Optional.empty() : Optional.of("learner-" + i));
+        }
+        assertThat(batches.stream().mapToInt(List::size).sum()).isEqualTo(20);
+        assertThat(batches.size()).isLessThan(20);
+        DistributionSummary sizes = registry.get("emis.lookup.batch.size").tag("type", "learner").summary();
+        assertThat(sizes.count()).isEqualTo(batches.size());
+        assertThat(sizes.totalAmount()).isEqualTo(20);
+    }
+
+    @Test
+    void fullBatchIsDispatchedWithoutWaitingOutTheWindow() throws Exception {
+        LookupBatcher batcher = batcher(4, Duration.ofSeconds(30));
+
+        long started = System.nanoTime();
+        List<Optional<String>> results = lookUpConcurrently(batcher, 5, this::names);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(10));
+        assertThat(results).containsExactly(Optional.empty(), Optional.of("learner-1"), Optional.of("learner-2"),
+                Optional.of("learner-3"), Optional.of("learner-4"));
+        // The first caller found nothing pending and went alone; the other four filled a batch
+        assertThat(batches).extracting(List::size).containsExactly(1, 4);
+    }
+
+    @Test
+    void lookupWithNothingPendingDoesNotWaitOutTheWindow() {
+        LookupBatcher batcher = batcher(100, Duration.ofSeconds(30));
+
+        long started = System.nanoTime();
+        assertThat(batcher.coalesce("learner", 1L, this::names)).contains("learner-1");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(10));
+        assertThat(batches).containsExactly(List.of(1L));
+    }
+
+    @Test
+    void loaderFailuresReachEveryWaitingCaller() {
+        LookupBatcher batcher = batcher(100, Duration.ZERO);
+
+        assertThatThrownBy(() -> batcher.coalesce("learner", 1L, ids -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void multiGetsAreDistinctAndBounded() {
+        LookupBatcher batcher = batcher(3, Duration.ZERO);
+
+        assertThat(batcher.distinctIds(List.of(3L, 1L, 3L, 2L))).containsExactly(3L, 1L, 2L);
+        assertThatThrownBy(() -> batcher.distinctIds(List.of(1L, 2L, 3L, 4L)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void directLookupsRunReadOnlySoTheyAreRoutedToTheReplica() {
+        PlatformTransactionManager transactionManager = Mockito.mock(PlatformTransactionManager.class);
+        LookupBatcher batcher = new LookupBatcher(transactionManager, registry, 100, Duration.ZERO);
+
+        assertThat(batcher.readOnly(() -> "learner-1")).isEqualTo("learner-1");
+        Mockito.verify(transactionManager).getTransaction(Mockito.argThat(TransactionDefinition::isReadOnly));
+    }
+
+    private LookupBatcher batcher(int maxIds, Duration window) {
+        return new LookupBatcher(Mockito.mock(PlatformTransactionManager.class), registry, maxIds, window);
+    }
+
+    // Every fifth id does not exist. Slow enough that concurrent callers arrive while a query is running
+    private Map<Long, String> names(List<Long> ids) {
+        batches.add(ids);
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return ids.stream().filter(id -> id % 5 != 0).collect(Collectors.toMap(id -> id, id -> "learner-" + id));
+    }
+
+    private static List<Optional<String>> lookUpConcurrently(LookupBatcher batcher, int callers,
+                                                             Function<List<Long>, Map<Long, String>> loader)
+            throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            List<Future<Optional<String>>> futures = new ArrayList<>();
+            for (long id = 0; id < callers; id++) {
+                long key = id;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return batcher.coalesce("learner", key, loader);
+                }));
+            }
+            start.countDown();
+            List<Optional<String>> results = new ArrayList<>();
+            for (Future<Optional<String>> future : futures) {
+                results.add(future.get(20, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
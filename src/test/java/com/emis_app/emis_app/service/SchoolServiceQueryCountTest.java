@@ -0,0 +1,112 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.FieldSet;
+import com.emis_app.emis_app.dto.PagedResponse;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.dto.TotalMode;
+import com.emis_app.emis_app.repository.SchoolRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SchoolServiceQueryCountTest {
+
+    @Autowired
+    private SchoolService schoolService;
+
+    @Autowired
+    private SchoolRepository schoolRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void schoolPageUsesConstantNumberOfStatements() {
+        long smallPage = statementsFor(() -> schoolService.getAllSchools(0, 5, "name", "asc", TotalMode.EXACT, FieldSet.ALL));
+        long largePage = statementsFor(() -> schoolService.getAllSchools(0, 15, "name", "asc", TotalMode.EXACT, FieldSet.ALL));
+
+        // page select + total count + one grouped learner count
+        assertThat(smallPage).isEqualTo(3);
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void availableCapacityPageUsesConstantNumberOfStatements() {
+        long smallPage = statementsFor(() -> schoolService.getSchoolsWithAvailableCapacity(0, 5, "name", "asc", TotalMode.EXACT, FieldSet.ALL));
+        long largePage = statementsFor(() -> schoolService.getSchoolsWithAvailableCapacity(0, 15, "name", "asc", TotalMode.EXACT, FieldSet.ALL));
+
+        assertThat(smallPage).isLessThanOrEqualTo(3);
+        assertThat(largePage).isEqualTo(smallPage);
+    }
+
+    @Test
+    void batchedLearnerCountsMatchPerSchoolCounts() {
+        PagedResponse<SchoolDTO> page = schoolService.getAllSchools(0, 20, "name", "asc", TotalMode.EXACT, FieldSet.ALL);
+
+        assertThat(page.getContent()).isNotEmpty();
+        for (SchoolDTO school : page.getContent()) {
+            assertThat(school.getLearnersCount())
+                    .isEqualTo(schoolRepository.countLearnersBySchoolId(school.getId()));
+        }
+    }
+
+    @Test
+    void sliceModeSkipsCountQuery() {
+        long exact = statementsFor(() -> schoolService.getAllSchools(0, 5, "name", "asc", TotalMode.EXACT, FieldSet.ALL));
+        long none = statementsFor(() -> schoolService.getAllSchools(0, 5, "name", "asc", TotalMode.NONE, FieldSet.ALL));
+
+        assertThat(none).isEqualTo(exact - 1);
+        PagedResponse<SchoolDTO> page = schoolService.getAllSchools(0, 5, "name", "asc", TotalMode.NONE, FieldSet.ALL);
+        assertThat(page.getTotalElements()).isNull();
+        assertThat(page.isHasNext()).isTrue();
+    }
+
+    @Test
+    void estimateModeReusesCachedCount() {
+        PagedResponse<SchoolDTO> first = schoolService.getAllSchools(0, 5, "name", "asc", TotalMode.ESTIMATE, FieldSet.ALL);
+        long second = statementsFor(() -> schoolService.getAllSchools(1, 5, "name", "asc", TotalMode.ESTIMATE, FieldSet.ALL));
+
+        assertThat(first.getTotalElements()).isEqualTo(schoolRepository.count());
+        assertThat(first.getTotalEstimated()).isTrue();
+        // slice select + grouped learner count, no COUNT
+        assertThat(second).isEqualTo(2);
+    }
+
+    @Test
+    void learnerCountsAreSkippedUnlessRequested() {
+        FieldSet fields = FieldSet.parse("id,name");
+        long sparse = statementsFor(() -> schoolService.getAllSchools(0, 5, "name", "asc", TotalMode.EXACT, fields));
+
+        // page select + total count
+        assertThat(sparse).isEqualTo(2);
+        assertThat(schoolService.getAllSchools(0, 5, "name", "asc", TotalMode.NONE, fields).getContent())
+                .isNotEmpty()
+                .allSatisfy(school -> {
+                    assertThat(school.getName()).isNotBlank();
+                    assertThat(school.getLocation()).isNull();
+                    assertThat(school.getLearnersCount()).isNull();
+                });
+    }
+
+    private long statementsFor(Runnable call) {
+        statistics.clear();
+        call.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
@@ -0,0 +1,87 @@
+package com.emis_app.emis_app.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight singleFlight = new SingleFlight(Mockito.mock(PlatformTransactionManager.class), registry);
+
+    @Test
+    void identicalConcurrentCallsShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+        try {
+            List<Future<Object>> results = new ArrayList<>();
+            for (int i = 0; i < CALLERS; i++) {
+                results.add(executor.submit(() -> singleFlight.execute("learners", "grade=p3&page=0", () -> {
+                    executions.incrementAndGet();
+                    await(release);
+                    return new Object();
+                })));
+            }
+            // Every other caller has joined the running query before it is allowed to finish
+            while (shared() < CALLERS - 1) {
+                Thread.sleep(5);
+            }
+            release.countDown();
+
+            Object first = results.get(0).get(10, TimeUnit.SECONDS);
+            for (Future<Object> result : results) {
+                assertThat(result.get(10, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(executions).hasValue(1);
+        assertThat(registry.get("emis.search.singleflight.ratio").tag("type", "learners").gauge().value())
+                .isEqualTo((CALLERS - 1) / (double) CALLERS);
+
+        // Nothing is kept once the query has returned
+        singleFlight.execute("learners", "grade=p3&page=0", executions::incrementAndGet);
+        assertThat(executions).hasValue(2);
+    }
+
+    @Test
+    void failuresAreNotRemembered() {
+        assertThatThrownBy(() -> singleFlight.execute("schools", "name=a", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(singleFlight.execute("schools", "name=a", () -> "ok")).isEqualTo("ok");
+    }
+
+    private double shared() {
+        Counter shared = registry.find("emis.search.singleflight.calls").tag("type", "learners").tag("result", "shared")
+                .counter();
+        return shared == null ? 0 : shared.count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
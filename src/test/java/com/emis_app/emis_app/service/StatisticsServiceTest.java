@@ -0,0 +1,157 @@
+package com.emis_app.emis_app.service;
+
+import com.emis_app.emis_app.dto.LearnerDTO;
+import com.emis_app.emis_app.dto.SchoolDTO;
+import com.emis_app.emis_app.repository.LearnerRepository;
+import com.emis_app.emis_app.repository.SchoolRepository;
+import com.emis_app.emis_app.statistics.StatisticsCube.Cell;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.emis_app.emis_app.TestFixtures.learner;
+import static com.emis_app.emis_app.TestFixtures.school;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StatisticsServiceTest {
+
+    @Autowired
+    private StatisticsService statisticsService;
+
+    @Autowired
+    private LearnerService learnerService;
+
+    @Autowired
+    private SchoolService schoolService;
+
+    @Autowired
+    private BulkEnrollmentService bulkEnrollmentService;
+
+    @Autowired
+    private LearnerRepository learnerRepository;
+
+    @Autowired
+    private SchoolRepository schoolRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Test
+    void cubeFollowsCreatesUpdatesAndDeletes() {
+        SchoolDTO school = schoolService.createSchool(school(100));
+        LearnerDTO first = learnerService.createLearner(learner("Statistics Learner", "Female", "P3", school.getId()));
+        learnerService.createLearner(learner("Statistics Learner", "Male", "P3", school.getId()));
+        bulkEnrollmentService.enrollLearners(List.of(learner("Statistics Learner", "Female", "P4", school.getId())));
+
+        assertThat(statisticsService.countLearnersByGender(school.getId(), null, null))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("Female", 2L, "Male", 1L));
+
+        first.setGrade("P4");
+        learnerService.updateLearner(first.getId(), first);
+        assertThat(statisticsService.countLearnersByGrade(school.getId(), "female", null))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("P4", 2L));
+
+        learnerService.deleteLearner(first.getId());
+        assertThat(statisticsService.countLearnersByGrade(school.getId(), null, null))
+                .containsExactlyInAnyOrderEntriesOf(Map.of("P3", 1L, "P4", 1L));
+
+        schoolService.deleteSchool(school.getId());
+        assertThat(statisticsService.countLearnersBySchool(null, null, null)).doesNotContainKey(school.getName());
+    }
+
+    @Test
+    void rollUpsMatchTheDatabaseWithoutQueryingIt() {
+        SchoolDTO school = schoolService.createSchool(school(100));
+        learnerService.createLearner(learner("Statistics Learner", "Other", "S6", school.getId()));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Map<String, Long> byGender = statisticsService.countLearnersByGender(null, null, null);
+        Map<String, Long> byGrade = statisticsService.countLearnersByGrade(null, null, null);
+        Map<String, Long> byYear = statisticsService.countLearnersByAcademicYear(null, null, null);
+        Map<String, Long> bySchool = statisticsService.countLearnersBySchool(null, null, null);
+        Map<String, Long> byType = statisticsService.countSchoolsByType();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(byGender).containsExactlyInAnyOrderEntriesOf(toMap(learnerRepository.countLearnersByGender()));
+        assertThat(byGrade).containsExactlyInAnyOrderEntriesOf(toMap(learnerRepository.countLearnersByGrade()));
+        assertThat(byYear).containsExactlyInAnyOrderEntriesOf(toMap(learnerRepository.countLearnersByAcademicYear()));
+        assertThat(bySchool).containsExactlyInAnyOrderEntriesOf(toMap(learnerRepository.countLearnersBySchool()));
+        assertThat(byType).containsExactlyInAnyOrderEntriesOf(toMap(schoolRepository.countSchoolsByType()));
+    }
+
+    @Test
+    void deltasDeliveredWhileALoadIsReadingAreReplayedOnTheNewCube() {
+        LearnerRepository learners = Mockito.mock(LearnerRepository.class);
+        SchoolRepository schools = Mockito.mock(SchoolRepository.class);
+        StatisticsService service = new StatisticsService(learners, schools,
+                Mockito.mock(PlatformTransactionManager.class));
+        Cell cell = new Cell(1L, "Female", "P3", "2024-2025");
+        Mockito.when(schools.findIdsNamesAndTypes()).thenReturn(List.<Object[]>of(new Object[]{1L, "School", "Public Primary"}));
+        // An enrollment commits after the GROUP BY read its snapshot and is delivered before the cube is published
+        Mockito.when(learners.countLearnersBySchoolGenderGradeAndAcademicYear()).thenAnswer(invocation -> {
+            service.learnerAdded(cell);
+            return List.<Object[]>of(new Object[]{1L, "Female", "P3", "2024-2025", 2L});
+        });
+
+        service.rebuild();
+
+        assertThat(service.countLearnersByGender(1L, null, null)).containsExactly(Map.entry("Female", 3L));
+    }
+
+    @Test
+    void concurrentReadersOfAStaleCubeReloadItOnce() throws Exception {
+        LearnerRepository learners = Mockito.mock(LearnerRepository.class);
+        SchoolRepository schools = Mockito.mock(SchoolRepository.class);
+        StatisticsService service = new StatisticsService(learners, schools,
+                Mockito.mock(PlatformTransactionManager.class));
+        AtomicInteger loads = new AtomicInteger();
+        Mockito.when(schools.findIdsNamesAndTypes()).thenAnswer(invocation -> {
+            loads.incrementAndGet();
+            Thread.sleep(100);
+            return List.of();
+        });
+        Mockito.when(learners.countLearnersBySchoolGenderGradeAndAcademicYear()).thenReturn(List.of());
+        service.rebuild();
+        service.markStale();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Map<String, Long>>> readers = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                readers.add(executor.submit(() -> service.countLearnersByGender(null, null, null)));
+            }
+            for (Future<Map<String, Long>> reader : readers) {
+                reader.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(loads).hasValue(2);
+    }
+
+    private static Map<String, Long> toMap(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        rows.forEach(row -> counts.put((String) row[0], (Long) row[1]));
+        return counts;
+    }
+}
@@ -0,0 +1,85 @@
+package com.emis_app.emis_app.specification;
+
+import com.emis_app.emis_app.dto.SearchCriteria;
+import com.emis_app.emis_app.entity.Learner;
+import com.emis_app.emis_app.entity.School;
+import com.emis_app.emis_app.repository.LearnerRepository;
+import com.emis_app.emis_app.repository.SchoolRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchCriteriaSpecificationTest {
+
+    @Autowired
+    private LearnerRepository learnerRepository;
+
+    @Autowired
+    private SchoolRepository schoolRepository;
+
+    @Test
+    void builderKeepsOnlySuppliedFilters() {
+        SpecificationBuilder<School> builder = new SpecificationBuilder<School>()
+                .with("name", SearchOperation.LIKE, null)
+                .with("schoolType", SearchOperation.EQUAL_IGNORE_CASE, "public")
+                .withRange("enrollmentCapacity", 100, null);
+
+        assertThat(builder.getCriteria())
+                .extracting(criteria -> criteria.getKey() + " " + criteria.getOperation())
+                .containsExactly("schoolType ieq", "enrollmentCapacity gte");
+    }
+
+    @Test
+    void eachOperationMatchesTheEquivalentInMemoryFilter() {
+        List<School> schools = schoolRepository.findAll();
+        School first = schools.get(0);
+
+        List<School> inRange = schoolRepository.findAll(new SpecificationBuilder<School>()
+                .withRange("enrollmentCapacity", 300, 800)
+                .build());
+        assertThat(inRange).extracting(School::getId).containsExactlyInAnyOrderElementsOf(schools.stream()
+                .filter(s -> s.getEnrollmentCapacity() >= 300 && s.getEnrollmentCapacity() <= 800)
+                .map(School::getId)
+                .toList());
+
+        List<School> byType = schoolRepository.findAll(new SpecificationBuilder<School>()
+                .with("schoolType", SearchOperation.EQUAL_IGNORE_CASE, first.getSchoolType().toUpperCase())
+                .build());
+        assertThat(byType).isNotEmpty().allMatch(s -> s.getSchoolType().equalsIgnoreCase(first.getSchoolType()));
+
+        List<School> byIds = schoolRepository.findAll(SearchCriteriaSpecification.of("id", SearchOperation.IN, List.of(first.getId())));
+        assertThat(byIds).extracting(School::getId).containsExactly(first.getId());
+        assertThat(schoolRepository.findAll(SearchCriteriaSpecification.of("id", SearchOperation.IN, List.of()))).isEmpty();
+    }
+
+    @Test
+    @Transactional(readOnly = true)
+    void nestedKeysFilterThroughTheAssociation() {
+        Learner sample = learnerRepository.findAll().get(0);
+        String schoolName = sample.getSchool().getName();
+
+        List<Learner> bySchoolName = learnerRepository.findAll(new SpecificationBuilder<Learner>()
+                .with("school.name", SearchOperation.LIKE, schoolName.substring(1).toLowerCase())
+                .with("school.id", SearchOperation.EQUAL, sample.getSchool().getId())
+                .build());
+
+        assertThat(bySchoolName).isNotEmpty()
+                .allMatch(learner -> learner.getSchool().getId().equals(sample.getSchool().getId()));
+    }
+
+    @Test
+    void unknownOperationsAreRejected() {
+        assertThatThrownBy(() -> new SearchCriteriaSpecification<School>(
+                new SearchCriteria("name", "regex", "x")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}